@@ -0,0 +1,88 @@
+package bench;
+
+import interfaces.AllocationPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import prices.GlobalConstants;
+import product.AllocationPolicies;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    private static final int SIZES = 1024;
+
+    @Param({"LEGACY", "PRO_RATA", "FIFO", "PRO_RATA_TOP_ORDER"})
+    private String mode;
+
+    @Param({"64"})
+    private int orders;
+
+    private AllocationPolicy policy;
+    private int[] volumes;
+    private int[] fills;
+    private final int[] sizes = new int[SIZES];
+    private int levelVolume;
+    private int next;
+
+    @Setup
+    public void createLevel() {
+        policy = mode.equals("LEGACY") ? null : AllocationPolicies.forMode(GlobalConstants.AllocationMode.valueOf(mode));
+        volumes = new int[orders];
+        fills = new int[orders];
+        Random random = new Random(orders);
+        for (int i = 0; i < orders; i++) {
+            volumes[i] = 1 + random.nextInt(1_000);
+            levelVolume += volumes[i];
+        }
+        for (int i = 0; i < SIZES; i++) {
+            sizes[i] = 1 + random.nextInt(levelVolume - 1);
+            allocate(sizes[i]);
+            int allocated = 0;
+            for (int j = 0; j < orders; j++) {
+                if (fills[j] > volumes[j]) {
+                    throw new IllegalStateException(mode + " over-allocated order " + j);
+                }
+                allocated += fills[j];
+            }
+            if (allocated != sizes[i]) {
+                throw new IllegalStateException(mode + " allocated " + allocated + " of " + sizes[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] allocate() {
+        allocate(sizes[next++ & (SIZES - 1)]);
+        return fills;
+    }
+
+    private void allocate(int volumeToTrade) {
+        int remainder = volumeToTrade;
+        for (int i = 0; i < orders; i++) {
+            int toTrade = 0;
+            if (remainder > 0) {
+                toTrade = (policy != null)
+                        ? policy.allocate(i, volumes[i], volumes[0], levelVolume, volumeToTrade, remainder)
+                        : AllocationCheck.legacyProRata(volumes[i], levelVolume, volumeToTrade, remainder);
+            }
+            fills[i] = toTrade;
+            remainder -= toTrade;
+        }
+    }
+}
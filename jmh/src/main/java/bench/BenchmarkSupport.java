@@ -0,0 +1,23 @@
+package bench;
+
+import events.EventSinkManager;
+import events.NoOpEventSink;
+import exceptions.DataValidationException;
+import user.UserManager;
+
+final class BenchmarkSupport {
+    static final String[] USERS = {"BMA", "BMB", "BMC", "BMD", "BME", "BMF", "BMG", "BMH"};
+
+    private BenchmarkSupport() {}
+
+    static synchronized void init() throws DataValidationException {
+        EventSinkManager.getInstance().setSink(new NoOpEventSink());
+        if (!UserManager.getInstance().hasUser(USERS[0])) {
+            UserManager.getInstance().init(USERS);
+        }
+    }
+
+    static String user(int i) {
+        return USERS[i % USERS.length];
+    }
+}
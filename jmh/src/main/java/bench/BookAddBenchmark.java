@@ -0,0 +1,92 @@
+package bench;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import prices.GlobalConstants;
+import prices.Order;
+import prices.PriceFactory;
+import product.ProductBook;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BookAddBenchmark {
+    private static final int ORDERS = 1_000;
+
+    @Param({"false", "true"})
+    private boolean crossing;
+
+    @Param({"TICK_ARRAY", "TREE_MAP"})
+    private GlobalConstants.BookStructure structure;
+
+    private ProductBook book;
+    private Order[] orders;
+    private Order[] resting;
+
+    @Setup(Level.Trial)
+    public void createBook() throws DataValidationException, InvalidArgumentException {
+        BenchmarkSupport.init();
+        book = new ProductBook("BNCH", structure);
+        orders = new Order[ORDERS];
+        resting = new Order[crossing ? ORDERS : 0];
+    }
+
+    @Setup(Level.Invocation)
+    public void createOrders() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (int i = 0; i < ORDERS; i++) {
+            String user = BenchmarkSupport.user(i);
+            if (crossing) {
+                resting[i] = new Order(user, "BNCH", PriceFactory.makePrice(10_000 + i % 10), 100, GlobalConstants.BookSide.SELL);
+                book.add(resting[i]);
+                orders[i] = new Order(user, "BNCH", PriceFactory.makePrice(10_009), 50, GlobalConstants.BookSide.BUY);
+            } else if (i % 2 == 0) {
+                orders[i] = new Order(user, "BNCH", PriceFactory.makePrice(9_999 - i % 50), 100, GlobalConstants.BookSide.BUY);
+            } else {
+                orders[i] = new Order(user, "BNCH", PriceFactory.makePrice(10_001 + i % 50), 100, GlobalConstants.BookSide.SELL);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void add(Blackhole blackhole) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (Order order : orders) {
+            blackhole.consume(book.add(order));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void cancelResting() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        cancelResting(orders);
+        cancelResting(resting);
+    }
+
+    private void cancelResting(Order[] placed) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (Order order : placed) {
+            if (order.getRemainingVolume() > 0) {
+                book.cancel(order.getSide(), order.getNumericId());
+            }
+        }
+    }
+}
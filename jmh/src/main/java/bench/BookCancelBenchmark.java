@@ -0,0 +1,99 @@
+package bench;
+
+import dto.TradableDTO;
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import prices.GlobalConstants;
+import prices.Order;
+import prices.PriceFactory;
+import product.ProductBook;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BookCancelBenchmark {
+    private static final int CANCELS = 50;
+
+    @Param({"100", "1000", "10000"})
+    private int depth;
+
+    @Param({"TICK_ARRAY", "TREE_MAP"})
+    private GlobalConstants.BookStructure structure;
+
+    private ProductBook book;
+    private TradableDTO[] resting;
+    private int[] slots;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void fillBook() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        BenchmarkSupport.init();
+        book = new ProductBook("BNCH", structure);
+        resting = new TradableDTO[depth];
+        slots = new int[depth];
+        random = new Random(depth);
+        for (int i = 0; i < depth; i++) {
+            resting[i] = book.add(order(i));
+            slots[i] = i;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void pickVictims() {
+        for (int i = 0; i < CANCELS; i++) {
+            int j = i + random.nextInt(depth - i);
+            int swap = slots[i];
+            slots[i] = slots[j];
+            slots[j] = swap;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANCELS)
+    public void cancel(Blackhole blackhole) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (int i = 0; i < CANCELS; i++) {
+            TradableDTO dto = resting[slots[i]];
+            blackhole.consume(book.cancel(dto.side(), dto.tradableId()));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void refill() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (int i = 0; i < CANCELS; i++) {
+            resting[slots[i]] = book.add(order(slots[i]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cancelAll() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (TradableDTO dto : resting) {
+            book.cancel(dto.side(), dto.numericId());
+        }
+    }
+
+    private static Order order(int i) throws InvalidPriceException, InvalidArgumentException {
+        return new Order(BenchmarkSupport.user(i), "BNCH", PriceFactory.makePrice(9_999 - i % 50), 10, GlobalConstants.BookSide.BUY);
+    }
+}
@@ -0,0 +1,52 @@
+package bench;
+
+import interfaces.CurrentMarketObserver;
+import market.CurrentMarketPublisher;
+import market.CurrentMarketSide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import prices.PriceFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MarketFanOutBenchmark {
+    @Param({"1", "16", "256"})
+    private int subscribers;
+
+    private String symbol;
+    private final CurrentMarketSide[] buySides = new CurrentMarketSide[2];
+    private CurrentMarketSide sellSide;
+    private int next;
+
+    @Setup
+    public void subscribe() {
+        symbol = "FAN" + subscribers;
+        CurrentMarketObserver observer = (symbol, buySide, sellSide) -> { };
+        for (int i = 0; i < subscribers; i++) {
+            CurrentMarketPublisher.getInstance().subscribeCurrentMarket(symbol, observer);
+        }
+        buySides[0] = new CurrentMarketSide(PriceFactory.makePrice(9_999), 100);
+        buySides[1] = new CurrentMarketSide(PriceFactory.makePrice(9_999), 200);
+        sellSide = new CurrentMarketSide(PriceFactory.makePrice(10_001), 100);
+    }
+
+    @Benchmark
+    public void publish() {
+        CurrentMarketPublisher.getInstance().acceptCurrentMarket(symbol, buySides[next++ & 1], sellSide);
+    }
+}
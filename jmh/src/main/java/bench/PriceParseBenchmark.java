@@ -0,0 +1,43 @@
+package bench;
+
+import exceptions.InvalidPriceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import prices.Price;
+import prices.PriceFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PriceParseBenchmark {
+    private static final int INPUTS = 1024;
+
+    private final String[] inputs = new String[INPUTS];
+    private int next;
+
+    @Setup
+    public void createInputs() {
+        for (int i = 0; i < INPUTS; i++) {
+            int cents = 100_000 + i * 37;
+            inputs[i] = String.format("$%,d.%02d", cents / 100, cents % 100);
+        }
+    }
+
+    @Benchmark
+    public Price makePrice() throws InvalidPriceException {
+        return PriceFactory.makePrice(inputs[next++ & (INPUTS - 1)]);
+    }
+}
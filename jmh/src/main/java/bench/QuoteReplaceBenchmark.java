@@ -0,0 +1,69 @@
+package bench;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import prices.PriceFactory;
+import product.ProductBook;
+import quote.Quote;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class QuoteReplaceBenchmark {
+    private static final int QUOTES = 1_000;
+
+    private ProductBook book;
+    private final Quote[] quotes = new Quote[QUOTES];
+
+    @Setup(Level.Trial)
+    public void seedQuotes() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        BenchmarkSupport.init();
+        book = new ProductBook("BNCH");
+        for (String user : BenchmarkSupport.USERS) {
+            book.add(new Quote("BNCH", PriceFactory.makePrice(9_990), 100, PriceFactory.makePrice(10_010), 100, user));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createQuotes() throws InvalidArgumentException, InvalidPriceException {
+        for (int i = 0; i < QUOTES; i++) {
+            quotes[i] = new Quote("BNCH", PriceFactory.makePrice(9_990 + i % 10), 100,
+                    PriceFactory.makePrice(10_001 + i % 10), 100, BenchmarkSupport.user(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUOTES)
+    public void requote(Blackhole blackhole) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (Quote quote : quotes) {
+            blackhole.consume(book.add(quote));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void removeQuotes() throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        for (String user : BenchmarkSupport.USERS) {
+            book.removeQuotesForUser(user);
+        }
+    }
+}
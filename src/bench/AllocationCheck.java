@@ -0,0 +1,139 @@
+package bench;
+
+import events.EventSinkManager;
+import events.NoOpEventSink;
+import interfaces.AllocationPolicy;
+import prices.GlobalConstants;
+import prices.Order;
+import prices.PriceFactory;
+import product.AllocationPolicies;
+import product.ProductBook;
+import user.UserManager;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class AllocationCheck {
+    private static final String[] USERS = {"ACA", "ACB", "ACC", "ACD"};
+    private static final int RANDOM_SHARES = 1_000_000;
+
+    private int checks;
+    private int comparisons;
+
+    public static void main(String[] args) throws Exception {
+        EventSinkManager.getInstance().setSink(new NoOpEventSink());
+        UserManager.getInstance().init(USERS);
+        AllocationCheck check = new AllocationCheck();
+        check.run();
+        System.out.println(check.checks + " allocation checks and " + check.comparisons + " legacy comparisons passed");
+    }
+
+    private void run() throws Exception {
+        int[] mixed = {100, 200, 300};
+        expect(GlobalConstants.AllocationMode.PRO_RATA, mixed, 300, 50, 100, 150);
+        expect(GlobalConstants.AllocationMode.FIFO, mixed, 300, 100, 200, 0);
+        expect(GlobalConstants.AllocationMode.PRO_RATA_TOP_ORDER, mixed, 300, 100, 80, 120);
+
+        int[] roundsUp = {1, 1, 1};
+        expect(GlobalConstants.AllocationMode.PRO_RATA, roundsUp, 2, 1, 1, 0);
+        expect(GlobalConstants.AllocationMode.FIFO, roundsUp, 2, 1, 1, 0);
+        expect(GlobalConstants.AllocationMode.PRO_RATA_TOP_ORDER, roundsUp, 2, 1, 1, 0);
+
+        int[] equal = {5, 5, 5, 5};
+        expect(GlobalConstants.AllocationMode.PRO_RATA, equal, 3, 1, 1, 1, 0);
+        expect(GlobalConstants.AllocationMode.FIFO, equal, 3, 3, 0, 0, 0);
+        expect(GlobalConstants.AllocationMode.PRO_RATA_TOP_ORDER, equal, 3, 3, 0, 0, 0);
+
+        int[] single = {50};
+        for (GlobalConstants.AllocationMode mode : GlobalConstants.AllocationMode.values()) {
+            expect(mode, single, 20, 20);
+        }
+
+        int[] wholeLevel = {10, 20};
+        for (GlobalConstants.AllocationMode mode : GlobalConstants.AllocationMode.values()) {
+            expect(mode, wholeLevel, 30, 10, 20);
+        }
+
+        int[] largeTop = {100, 50};
+        expect(GlobalConstants.AllocationMode.PRO_RATA, largeTop, 60, 40, 20);
+        expect(GlobalConstants.AllocationMode.FIFO, largeTop, 60, 60, 0);
+        expect(GlobalConstants.AllocationMode.PRO_RATA_TOP_ORDER, largeTop, 60, 60, 0);
+
+        int[] exactShares = {14, 36};
+        expect(GlobalConstants.AllocationMode.PRO_RATA, exactShares, 25, 7, 18);
+        expect(GlobalConstants.AllocationMode.FIFO, exactShares, 25, 14, 11);
+        expect(GlobalConstants.AllocationMode.PRO_RATA_TOP_ORDER, exactShares, 25, 14, 11);
+        same("legacy split of " + Arrays.toString(exactShares), split(null, exactShares, 25), 8, 17);
+
+        compareWithLegacy();
+    }
+
+    private void expect(GlobalConstants.AllocationMode mode, int[] volumes, int traded, int... expected) throws Exception {
+        String label = mode + " " + Arrays.toString(volumes) + " trading " + traded;
+        same(label, split(AllocationPolicies.forMode(mode), volumes, traded), expected);
+        same(label + " through a book", tradeThroughBook(mode, volumes, traded), expected);
+    }
+
+    private void compareWithLegacy() {
+        Random random = new Random(21);
+        for (int i = 0; i < RANDOM_SHARES; i++) {
+            int levelVolume = 2 + random.nextInt(100_000);
+            int orderVolume = 1 + random.nextInt(levelVolume - 1);
+            int traded = 1 + random.nextInt(levelVolume - 1);
+            int share = AllocationPolicies.proRata(0, orderVolume, orderVolume, levelVolume, traded, traded);
+            int legacy = legacyProRata(orderVolume, levelVolume, traded, traded);
+            boolean exact = (long) orderVolume * traded % levelVolume == 0;
+            if (share != legacy && !(exact && legacy == share + 1)) {
+                throw new IllegalStateException("PRO_RATA share " + share + " differs from legacy " + legacy
+                        + " for order " + orderVolume + " of level " + levelVolume + " trading " + traded);
+            }
+            comparisons++;
+        }
+    }
+
+    private static int[] split(AllocationPolicy policy, int[] volumes, int traded) {
+        int levelVolume = Arrays.stream(volumes).sum();
+        int[] fills = new int[volumes.length];
+        int remainder = traded;
+        for (int i = 0; i < volumes.length && remainder > 0; i++) {
+            fills[i] = (policy != null)
+                    ? policy.allocate(i, volumes[i], volumes[0], levelVolume, traded, remainder)
+                    : legacyProRata(volumes[i], levelVolume, traded, remainder);
+            remainder -= fills[i];
+        }
+        return fills;
+    }
+
+    private static int[] tradeThroughBook(GlobalConstants.AllocationMode mode, int[] volumes, int traded) throws Exception {
+        ProductBook book = new ProductBook("ALLOC");
+        book.setAllocationMode(mode);
+        Order[] resting = new Order[volumes.length];
+        for (int i = 0; i < volumes.length; i++) {
+            resting[i] = new Order(USERS[i % USERS.length], "ALLOC", PriceFactory.makePrice(10_000), volumes[i], GlobalConstants.BookSide.BUY);
+            book.add(resting[i]);
+        }
+        book.add(new Order(USERS[0], "ALLOC", PriceFactory.makePrice(10_000), traded, GlobalConstants.BookSide.SELL));
+        int[] fills = new int[volumes.length];
+        for (int i = 0; i < volumes.length; i++) {
+            fills[i] = resting[i].getFilledVolume();
+            if (resting[i].getRemainingVolume() > 0) {
+                book.cancel(GlobalConstants.BookSide.BUY, resting[i].getNumericId());
+            }
+        }
+        return fills;
+    }
+
+    private void same(String label, int[] actual, int... expected) {
+        if (!Arrays.equals(actual, expected)) {
+            throw new IllegalStateException(label + ": expected " + Arrays.toString(expected) + " but got " + Arrays.toString(actual));
+        }
+        checks++;
+    }
+
+    static int legacyProRata(int orderVolume, int levelVolume, int volumeToTrade, int remainder) {
+        double ratio = (double) orderVolume / levelVolume;
+        int toTrade = (int) Math.ceil(ratio * volumeToTrade);
+        toTrade = Math.min(toTrade, remainder);
+        return Math.min(toTrade, orderVolume);
+    }
+}
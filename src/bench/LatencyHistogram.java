@@ -0,0 +1,80 @@
+package bench;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF_BUCKET_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * HALF_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalNanos;
+    private long maxNanos;
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        totalCount++;
+        totalNanos += value;
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return maxNanos;
+    }
+
+    public double getMean() {
+        return (totalCount == 0) ? 0 : (double) totalNanos / totalCount;
+    }
+
+    public long percentile(double fraction) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count %9d  mean %9.0f ns  p50 %8d ns  p90 %8d ns  p99 %8d ns  p99.9 %9d ns  p99.99 %9d ns  max %10d ns",
+                totalCount, getMean(), percentile(0.50), percentile(0.90), percentile(0.99),
+                percentile(0.999), percentile(0.9999), maxNanos);
+    }
+
+    private static int indexOf(long value) {
+        if (value < 2 * HALF_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < 2 * HALF_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_BUCKET_COUNT - 1;
+        long subBucket = index - (long) shift * HALF_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,13 @@
+package dto;
+
+public record BarDTO(
+        long startNanos,
+        double openCents,
+        double highCents,
+        double lowCents,
+        double closeCents,
+        double vwapCents,
+        long volume,
+        int samples
+) {
+}
@@ -0,0 +1,13 @@
+package dto;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+public record DepthLevelChangeDTO(
+        GlobalConstants.BookSide side,
+        GlobalConstants.DepthAction action,
+        Price price,
+        int volume,
+        int orderCount
+) {
+}
@@ -0,0 +1,10 @@
+package dto;
+
+import prices.Price;
+
+public record DepthLevelDTO(
+        Price price,
+        int volume,
+        int orderCount
+) {
+}
@@ -0,0 +1,11 @@
+package dto;
+
+import java.util.List;
+
+public record DepthSnapshotDTO(
+        String product,
+        long sequence,
+        List<DepthLevelDTO> bids,
+        List<DepthLevelDTO> asks
+) {
+}
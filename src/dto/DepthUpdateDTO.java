@@ -0,0 +1,10 @@
+package dto;
+
+import java.util.List;
+
+public record DepthUpdateDTO(
+        String product,
+        long sequence,
+        List<DepthLevelChangeDTO> changes
+) {
+}
@@ -0,0 +1,12 @@
+package dto;
+
+import prices.Price;
+
+public record TopOfBookDTO(
+        long timestampNanos,
+        Price bid,
+        int bidVolume,
+        Price ask,
+        int askVolume
+) {
+}
@@ -13,7 +13,8 @@ public record TradableDTO(
         int cancelledVolume,
         int filledVolume,
         GlobalConstants.BookSide side,
-        String tradableId
+        String tradableId,
+        long numericId
 ) {
     public TradableDTO(Tradable tradable) {
         this(
@@ -25,7 +26,8 @@ public record TradableDTO(
                 tradable.getCancelledVolume(),
                 tradable.getFilledVolume(),
                 tradable.getSide(),
-                tradable.getId()
+                tradable.getId(),
+                tradable.getNumericId()
         );
     }
 }
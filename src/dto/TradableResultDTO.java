@@ -0,0 +1,10 @@
+package dto;
+
+public record TradableResultDTO(
+        TradableDTO tradable,
+        Exception error
+) {
+    public boolean accepted() {
+        return error == null;
+    }
+}
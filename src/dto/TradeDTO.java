@@ -0,0 +1,15 @@
+package dto;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+public record TradeDTO(
+        long sequence,
+        String product,
+        String buyer,
+        String seller,
+        Price price,
+        int quantity,
+        GlobalConstants.BookSide aggressor
+) {
+}
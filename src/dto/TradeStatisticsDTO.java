@@ -0,0 +1,15 @@
+package dto;
+
+import prices.Price;
+
+public record TradeStatisticsDTO(
+        String product,
+        long tradeCount,
+        Price last,
+        int lastQuantity,
+        Price high,
+        Price low,
+        long volume,
+        double vwapCents
+) {
+}
@@ -0,0 +1,195 @@
+package events;
+
+import interfaces.MarketEventSink;
+import interfaces.Tradable;
+import prices.GlobalConstants;
+import prices.IdGenerator;
+import prices.Price;
+import quote.QuoteSide;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class AsyncEventSink implements MarketEventSink, AutoCloseable {
+    private static final int FILL = 1;
+    private static final int MARKET = 2;
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final Writer out;
+    private final Thread writerThread;
+    private long consumerPosition;
+    private volatile boolean running = true;
+
+    public AsyncEventSink(OutputStream out, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        this.writerThread = new Thread(this::drainLoop, "async-event-sink");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void onFill(Tradable t, int fillVolume, boolean fullFill) {
+        long position = claim();
+        if (position < 0) return;
+        Slot slot = slots[(int) position & mask];
+        slot.type = FILL;
+        slot.fullFill = fullFill;
+        slot.side = t.getSide();
+        slot.fillVolume = fillVolume;
+        slot.user = t.getUser();
+        slot.quote = t instanceof QuoteSide;
+        slot.product = t.getProduct();
+        slot.price = t.getPrice();
+        slot.originalVolume = t.getOriginalVolume();
+        slot.remainingVolume = t.getRemainingVolume();
+        slot.filledVolume = t.getFilledVolume();
+        slot.cancelledVolume = t.getCancelledVolume();
+        slot.id = t.getNumericId();
+        publish(position);
+    }
+
+    @Override
+    public void onMarketUpdate(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume) {
+        long position = claim();
+        if (position < 0) return;
+        Slot slot = slots[(int) position & mask];
+        slot.type = MARKET;
+        slot.product = symbol;
+        slot.price = buyPrice;
+        slot.buyVolume = buyVolume;
+        slot.sellPrice = sellPrice;
+        slot.sellVolume = sellVolume;
+        publish(position);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    private long claim() {
+        while (true) {
+            long position = producerPosition.get();
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                droppedEvents.incrementAndGet();
+                return -1;
+            }
+        }
+    }
+
+    private void publish(long position) {
+        sequences.lazySet((int) position & mask, position + 1);
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int drained = drain();
+            if (drained == 0) {
+                if (!running && drain() == 0) {
+                    break;
+                }
+                flushQuietly();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        flushQuietly();
+    }
+
+    private int drain() {
+        int drained = 0;
+        while (true) {
+            int index = (int) consumerPosition & mask;
+            if (sequences.get(index) != consumerPosition + 1) {
+                return drained;
+            }
+            Slot slot = slots[index];
+            try {
+                out.write(slot.format());
+            } catch (IOException e) {
+                droppedEvents.incrementAndGet();
+            }
+            slot.clear();
+            sequences.lazySet(index, consumerPosition + slots.length);
+            consumerPosition++;
+            drained++;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error flushing event sink: " + e.getMessage());
+        }
+    }
+
+    private static class Slot {
+        int type;
+        boolean fullFill;
+        boolean quote;
+        GlobalConstants.BookSide side;
+        int fillVolume;
+        String user;
+        String product;
+        Price price;
+        int buyVolume;
+        Price sellPrice;
+        int sellVolume;
+        int originalVolume;
+        int remainingVolume;
+        int filledVolume;
+        int cancelledVolume;
+        long id;
+
+        String format() {
+            if (type == FILL) {
+                return EventFormat.fill(fullFill, side, fillVolume, user, quote, product, price,
+                        originalVolume, remainingVolume, filledVolume, cancelledVolume, IdGenerator.format(id));
+            }
+            return EventFormat.marketUpdate(product, price, buyVolume, sellPrice, sellVolume);
+        }
+
+        void clear() {
+            user = null;
+            product = null;
+            price = null;
+            sellPrice = null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package events;
+
+import interfaces.MarketEventSink;
+import interfaces.Tradable;
+import prices.Price;
+import quote.QuoteSide;
+
+import java.io.PrintStream;
+
+public class ConsoleEventSink implements MarketEventSink {
+    private final PrintStream out;
+
+    public ConsoleEventSink() {
+        this(System.out);
+    }
+
+    public ConsoleEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onFill(Tradable t, int fillVolume, boolean fullFill) {
+        out.print(EventFormat.fill(fullFill, t.getSide(), fillVolume, t.getUser(), t instanceof QuoteSide,
+                t.getProduct(), t.getPrice(), t.getOriginalVolume(), t.getRemainingVolume(),
+                t.getFilledVolume(), t.getCancelledVolume(), t.getId()));
+    }
+
+    @Override
+    public void onMarketUpdate(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume) {
+        out.print(EventFormat.marketUpdate(symbol, buyPrice, buyVolume, sellPrice, sellVolume));
+    }
+}
@@ -0,0 +1,32 @@
+package events;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+public final class EventFormat {
+
+    private EventFormat() {}
+
+    public static String fill(boolean fullFill, GlobalConstants.BookSide side, int fillVolume, String user, boolean quote,
+                              String product, Price price, int originalVolume, int remainingVolume,
+                              int filledVolume, int cancelledVolume, String id) {
+        return String.format(
+                "\t%s FILL: (%s %3d) %s  %s side %s for %s: Price: %s, Orig Vol: %3d, Rem Vol: %3d, Fill Vol: %3d, Cxl'd Vol: %3d, ID: %s\n",
+                fullFill ? "FULL" : "PARTIAL", side, fillVolume, user, side, quote ? "quote" : "order", product,
+                price, originalVolume, remainingVolume, filledVolume, cancelledVolume, id
+        );
+    }
+
+    public static String marketUpdate(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume) {
+        double marketWidth = 0.00;
+        if (buyPrice != null && sellPrice != null && buyPrice.getCents() > 0 && sellPrice.getCents() > 0) {
+            marketWidth = (sellPrice.getCents() - buyPrice.getCents()) / 100.0;
+        }
+        return String.format("*********** Current Market ***********%n* %s   %s - %s [$%.2f]%n**************************************%n",
+                symbol, side(buyPrice, buyVolume), side(sellPrice, sellVolume), marketWidth);
+    }
+
+    private static String side(Price price, int volume) {
+        return ((price != null) ? price.toString() : "$0.00") + "x" + volume;
+    }
+}
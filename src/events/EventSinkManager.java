@@ -0,0 +1,22 @@
+package events;
+
+import interfaces.MarketEventSink;
+
+public class EventSinkManager {
+    private static final EventSinkManager instance = new EventSinkManager();
+    private volatile MarketEventSink sink = new ConsoleEventSink();
+
+    private EventSinkManager() {}
+
+    public static EventSinkManager getInstance() {
+        return instance;
+    }
+
+    public MarketEventSink getSink() {
+        return sink;
+    }
+
+    public void setSink(MarketEventSink sink) {
+        this.sink = (sink != null) ? sink : new NoOpEventSink();
+    }
+}
@@ -0,0 +1,15 @@
+package events;
+
+import interfaces.MarketEventSink;
+import interfaces.Tradable;
+import prices.Price;
+
+public class NoOpEventSink implements MarketEventSink {
+    @Override
+    public void onFill(Tradable tradable, int fillVolume, boolean fullFill) {
+    }
+
+    @Override
+    public void onMarketUpdate(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume) {
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class RiskLimitException extends DataValidationException {
+    public RiskLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,5 @@
+package interfaces;
+
+public interface AllocationPolicy {
+    int allocate(int position, int orderVolume, int firstOrderVolume, int levelVolume, int volumeToTrade, int unallocated);
+}
@@ -0,0 +1,7 @@
+package interfaces;
+
+import dto.DepthUpdateDTO;
+
+public interface DepthListener {
+    void onDepthUpdate(DepthUpdateDTO update);
+}
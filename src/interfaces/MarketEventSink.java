@@ -0,0 +1,8 @@
+package interfaces;
+
+import prices.Price;
+
+public interface MarketEventSink {
+    void onFill(Tradable tradable, int fillVolume, boolean fullFill);
+    void onMarketUpdate(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume);
+}
@@ -0,0 +1,6 @@
+package interfaces;
+
+@FunctionalInterface
+public interface TopOfBookVisitor {
+    void visit(long timestampNanos, int bidCents, int bidVolume, int askCents, int askVolume);
+}
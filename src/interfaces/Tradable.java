@@ -7,6 +7,7 @@ import dto.TradableDTO;
 
 public interface Tradable {
     String getId();
+    long getNumericId();
     int getRemainingVolume();
     void setCancelledVolume(int newVol) throws InvalidArgumentException;
     int getCancelledVolume();
@@ -17,6 +18,10 @@ public interface Tradable {
     int getFilledVolume();
     GlobalConstants.BookSide getSide();
     String getUser();
+    int getUserHandle();
+    void setUserHandle(int userHandle);
     String getProduct();
     int getOriginalVolume();
+    GlobalConstants.OrderType getOrderType();
+    GlobalConstants.TimeInForce getTimeInForce();
 }
\ No newline at end of file
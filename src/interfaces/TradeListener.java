@@ -0,0 +1,7 @@
+package interfaces;
+
+import dto.TradeDTO;
+
+public interface TradeListener {
+    void onTrade(TradeDTO trade);
+}
@@ -0,0 +1,15 @@
+package journal;
+
+import interfaces.Tradable;
+import prices.GlobalConstants;
+
+import java.util.List;
+
+public record BookSnapshot(
+        String symbol,
+        GlobalConstants.BookStructure structure,
+        long sequence,
+        byte[] book,
+        List<Tradable> terminalTradables
+) {
+}
@@ -0,0 +1,5 @@
+package journal;
+
+public enum DurabilityMode {
+    SYNC_PER_BATCH, PERIODIC, ASYNC
+}
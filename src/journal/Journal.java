@@ -0,0 +1,262 @@
+package journal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public class Journal implements AutoCloseable {
+    static final int HEADER_BYTES = 8;
+    static final int MAX_RECORD_BYTES = 4096;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path basePath;
+    private FileChannel channel;
+    private final DurabilityMode mode;
+    private final long forceIntervalNanos;
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+    private final Thread writerThread;
+    private ByteBuffer active = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long nextSequence;
+    private long writtenSequence;
+    private long forcedSequence;
+    private long lastForceNanos = System.nanoTime();
+    private long rotationRequests;
+    private long completedRotations;
+    private long rotatedSequence;
+    private boolean running = true;
+    private IOException failure;
+
+    @FunctionalInterface
+    public interface PayloadWriter {
+        void write(ByteBuffer buffer);
+    }
+
+    public Journal(Path basePath, DurabilityMode mode, long forceIntervalMillis, long lastSequence) throws IOException {
+        this.basePath = basePath;
+        this.channel = openSegment(basePath, lastSequence + 1);
+        this.mode = mode;
+        this.forceIntervalNanos = Math.max(1, forceIntervalMillis) * 1_000_000L;
+        this.nextSequence = lastSequence;
+        this.writtenSequence = lastSequence;
+        this.forcedSequence = lastSequence;
+        this.writerThread = new Thread(this::writeLoop, "journal-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public long append(RecordType type, PayloadWriter payload) throws IOException {
+        synchronized (lock) {
+            while (active.remaining() < MAX_RECORD_BYTES && failure == null) {
+                lock.notifyAll();
+                awaitWriter();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (!running) {
+                throw new IOException("Journal is closed.");
+            }
+            long sequence = ++nextSequence;
+            int start = active.position();
+            active.position(start + HEADER_BYTES);
+            active.put(type.code());
+            active.putLong(sequence);
+            payload.write(active);
+            int end = active.position();
+            ByteBuffer body = active.duplicate();
+            body.position(start + HEADER_BYTES).limit(end);
+            crc.reset();
+            crc.update(body);
+            active.putInt(start, end - start - HEADER_BYTES);
+            active.putInt(start + 4, (int) crc.getValue());
+            lock.notifyAll();
+            return sequence;
+        }
+    }
+
+    public void commit(long sequence) throws IOException {
+        if (mode != DurabilityMode.SYNC_PER_BATCH) {
+            return;
+        }
+        synchronized (lock) {
+            while (forcedSequence < sequence && failure == null) {
+                awaitWriter();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    public long rotate() throws IOException {
+        synchronized (lock) {
+            long request = ++rotationRequests;
+            lock.notifyAll();
+            while (completedRotations < request && failure == null) {
+                awaitWriter();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return rotatedSequence;
+        }
+    }
+
+    public long getLastSequence() {
+        synchronized (lock) {
+            return nextSequence;
+        }
+    }
+
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            long target;
+            long rotation;
+            boolean stopping;
+            synchronized (lock) {
+                while (running && active.position() == 0 && !periodicForceDue() && rotationRequests == completedRotations) {
+                    waitQuietly(mode == DurabilityMode.PERIODIC && writtenSequence > forcedSequence
+                            ? Math.max(1, forceIntervalNanos / 1_000_000L) : 0);
+                }
+                stopping = !running;
+                ByteBuffer filled = active;
+                active = flushing;
+                flushing = filled;
+                target = nextSequence;
+                rotation = rotationRequests;
+            }
+            try {
+                flushing.flip();
+                while (flushing.hasRemaining()) {
+                    channel.write(flushing);
+                }
+                flushing.clear();
+                boolean rotate = rotation > completedRotations;
+                boolean force = rotate || mode == DurabilityMode.SYNC_PER_BATCH
+                        || (mode == DurabilityMode.PERIODIC && (stopping || System.nanoTime() - lastForceNanos >= forceIntervalNanos));
+                if (force) {
+                    channel.force(false);
+                    lastForceNanos = System.nanoTime();
+                }
+                if (rotate) {
+                    channel.close();
+                    channel = openSegment(basePath, target + 1);
+                }
+                synchronized (lock) {
+                    writtenSequence = target;
+                    if (force || mode == DurabilityMode.ASYNC) {
+                        forcedSequence = target;
+                    }
+                    if (rotate) {
+                        rotatedSequence = target;
+                        completedRotations = rotation;
+                    }
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            if (stopping) {
+                synchronized (lock) {
+                    if (active.position() == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    static Path segmentPath(Path basePath, long firstSequence) {
+        return basePath.resolveSibling(basePath.getFileName() + "." + String.format("%019d", firstSequence));
+    }
+
+    static long segmentFirstSequence(Path basePath, Path segment) {
+        String prefix = basePath.getFileName() + ".";
+        String name = segment.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() != prefix.length() + 19) {
+            return -1;
+        }
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (name.charAt(i) < '0' || name.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(name.substring(prefix.length()));
+    }
+
+    static List<Path> segments(Path basePath) throws IOException {
+        Path directory = basePath.toAbsolutePath().getParent();
+        List<Path> segments = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> segmentFirstSequence(basePath, file) > 0).forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(file -> segmentFirstSequence(basePath, file)));
+        return segments;
+    }
+
+    private static FileChannel openSegment(Path basePath, long firstSequence) throws IOException {
+        return FileChannel.open(segmentPath(basePath, firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private boolean periodicForceDue() {
+        return mode == DurabilityMode.PERIODIC && writtenSequence > forcedSequence
+                && System.nanoTime() - lastForceNanos >= forceIntervalNanos;
+    }
+
+    private void awaitWriter() throws IOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal writer.");
+        }
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
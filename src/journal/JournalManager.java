@@ -0,0 +1,513 @@
+package journal;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+import interfaces.Tradable;
+import prices.GlobalConstants;
+import prices.IdGenerator;
+import prices.Order;
+import prices.Price;
+import prices.PriceFactory;
+import product.ProductManager;
+import quote.Quote;
+import quote.QuoteSide;
+import risk.RiskManager;
+import user.UserManager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class JournalManager {
+    private static final JournalManager instance = new JournalManager();
+    private static final byte ORDER = 0;
+    private static final byte QUOTE_SIDE = 1;
+    private static final GlobalConstants.BookSide[] SIDES = GlobalConstants.BookSide.values();
+    private static final GlobalConstants.BookStructure[] STRUCTURES = GlobalConstants.BookStructure.values();
+    private static final GlobalConstants.OrderType[] ORDER_TYPES = GlobalConstants.OrderType.values();
+    private static final GlobalConstants.TimeInForce[] TIMES_IN_FORCE = GlobalConstants.TimeInForce.values();
+    private static final GlobalConstants.AllocationMode[] ALLOCATION_MODES = GlobalConstants.AllocationMode.values();
+
+    private static final int SNAPSHOT_MAGIC = 0x534E4150;
+
+    private final Object snapshotLock = new Object();
+    private volatile Journal journal;
+    private volatile Path basePath;
+    private ScheduledExecutorService snapshotScheduler;
+    private long restoredSequence;
+    private Map<String, Long> restoredSequences = Map.of();
+    private Set<Long> rejectedSequences = Set.of();
+
+    private JournalManager() {}
+
+    public static JournalManager getInstance() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    public synchronized long recover(Path path, DurabilityMode mode, long forceIntervalMillis)
+            throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        if (journal != null) {
+            throw new DataValidationException("Journal is already open.");
+        }
+        boolean riskEnabled = RiskManager.getInstance().isEnabled();
+        RiskManager.getInstance().disable();
+        long lastSequence;
+        try {
+            lastSequence = loadSnapshot(snapshotPath(path));
+            for (long sequence : restoredSequences.values()) {
+                lastSequence = Math.max(lastSequence, sequence);
+            }
+            rejectedSequences = new HashSet<>();
+            for (Path segment : Journal.segments(path)) {
+                collectRejected(segment);
+            }
+            for (Path segment : Journal.segments(path)) {
+                lastSequence = Math.max(lastSequence, replay(segment));
+            }
+        } finally {
+            rejectedSequences = Set.of();
+            if (riskEnabled) {
+                RiskManager.getInstance().enable();
+            }
+        }
+        restoredSequences = Map.of();
+        basePath = path;
+        journal = new Journal(path, mode, forceIntervalMillis, lastSequence);
+        return lastSequence;
+    }
+
+    public synchronized void close() throws IOException {
+        stopSnapshots();
+        Journal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public long getLastSequence() {
+        Journal current = journal;
+        return (current == null) ? 0 : current.getLastSequence();
+    }
+
+    public synchronized void startSnapshots(long intervalMillis) throws DataValidationException {
+        if (journal == null) {
+            throw new DataValidationException("Journal is not open.");
+        }
+        if (!ProductManager.getInstance().isConcurrentMode()) {
+            throw new DataValidationException("Periodic snapshots require concurrent mode.");
+        }
+        if (intervalMillis <= 0) {
+            throw new DataValidationException("Snapshot interval must be positive.");
+        }
+        stopSnapshots();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::periodicSnapshot, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopSnapshots() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+            snapshotScheduler = null;
+        }
+    }
+
+    public long takeSnapshot() throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        synchronized (snapshotLock) {
+            Journal current = journal;
+            Path base = basePath;
+            if (current == null) {
+                throw new DataValidationException("Journal is not open.");
+            }
+            long sequence = current.rotate();
+            List<BookSnapshot> books = new ArrayList<>();
+            for (String symbol : ProductManager.getInstance().getProductSymbols()) {
+                books.add(ProductManager.getInstance().snapshotBook(symbol));
+            }
+            List<String> users = UserManager.getInstance().getUserIds();
+            writeSnapshot(snapshotPath(base), sequence, users, books);
+            for (Path segment : Journal.segments(base)) {
+                if (Journal.segmentFirstSequence(base, segment) <= sequence) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+            return sequence;
+        }
+    }
+
+    private void periodicSnapshot() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            takeSnapshot();
+        } catch (IOException | DataValidationException | InvalidArgumentException | InvalidPriceException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public long recordUser(String userId) throws DataValidationException {
+        return append(RecordType.ADD_USER, buffer -> JournalRecord.putString(buffer, userId));
+    }
+
+    public long recordProduct(String symbol, GlobalConstants.BookStructure structure) throws DataValidationException {
+        return append(RecordType.ADD_PRODUCT, buffer -> {
+            JournalRecord.putString(buffer, symbol);
+            buffer.put((byte) structure.ordinal());
+        });
+    }
+
+    public long recordAllocationMode(String symbol, GlobalConstants.AllocationMode mode) throws DataValidationException {
+        return append(RecordType.ALLOCATION_MODE, buffer -> {
+            JournalRecord.putString(buffer, symbol);
+            buffer.put((byte) mode.ordinal());
+        });
+    }
+
+    public long recordTradable(Tradable tradable) throws DataValidationException {
+        return append(RecordType.ADD_TRADABLE, buffer -> {
+            buffer.put(tradable instanceof QuoteSide ? QUOTE_SIDE : ORDER);
+            buffer.putLong(tradable.getNumericId());
+            JournalRecord.putString(buffer, tradable.getUser());
+            JournalRecord.putString(buffer, tradable.getProduct());
+            buffer.putInt(tradable.getPrice().getCents());
+            buffer.putInt(tradable.getOriginalVolume());
+            buffer.put((byte) tradable.getSide().ordinal());
+            buffer.put((byte) tradable.getOrderType().ordinal());
+            buffer.put((byte) tradable.getTimeInForce().ordinal());
+        });
+    }
+
+    public long recordQuote(Quote quote) throws DataValidationException, InvalidArgumentException {
+        QuoteSide buy = quote.getQuoteSide(GlobalConstants.BookSide.BUY);
+        QuoteSide sell = quote.getQuoteSide(GlobalConstants.BookSide.SELL);
+        return append(RecordType.ADD_QUOTE, buffer -> {
+            JournalRecord.putString(buffer, quote.getUser());
+            JournalRecord.putString(buffer, quote.getSymbol());
+            buffer.putLong(buy.getNumericId());
+            buffer.putInt(buy.getPrice().getCents());
+            buffer.putInt(buy.getOriginalVolume());
+            buffer.putLong(sell.getNumericId());
+            buffer.putInt(sell.getPrice().getCents());
+            buffer.putInt(sell.getOriginalVolume());
+        });
+    }
+
+    public long recordCancel(String product, GlobalConstants.BookSide side, long tradableId) throws DataValidationException {
+        return append(RecordType.CANCEL, buffer -> {
+            JournalRecord.putString(buffer, product);
+            buffer.put((byte) side.ordinal());
+            buffer.putLong(tradableId);
+        });
+    }
+
+    public long recordModify(String product, GlobalConstants.BookSide side, long tradableId, Price price, int remainingVolume) throws DataValidationException {
+        return append(RecordType.MODIFY, buffer -> {
+            JournalRecord.putString(buffer, product);
+            buffer.put((byte) side.ordinal());
+            buffer.putLong(tradableId);
+            buffer.putInt(price.getCents());
+            buffer.putInt(remainingVolume);
+        });
+    }
+
+    public long recordCancelQuote(String product, String user) throws DataValidationException {
+        return append(RecordType.CANCEL_QUOTE, buffer -> {
+            JournalRecord.putString(buffer, product);
+            JournalRecord.putString(buffer, user);
+        });
+    }
+
+    public void recordReject(long sequence) throws DataValidationException {
+        if (sequence <= 0) {
+            return;
+        }
+        commit(append(RecordType.REJECT, buffer -> buffer.putLong(sequence)));
+    }
+
+    public long recordFill(Tradable tradable, int fillVolume) throws DataValidationException {
+        if (journal == null) {
+            return 0;
+        }
+        return append(RecordType.FILL, buffer -> {
+            JournalRecord.putString(buffer, tradable.getProduct());
+            buffer.putLong(tradable.getNumericId());
+            buffer.putInt(tradable.getPrice().getCents());
+            buffer.putInt(fillVolume);
+            buffer.putInt(tradable.getRemainingVolume());
+        });
+    }
+
+    public void commit(long sequence) throws DataValidationException {
+        Journal current = journal;
+        if (current == null || sequence <= 0) {
+            return;
+        }
+        try {
+            current.commit(sequence);
+        } catch (IOException e) {
+            throw new DataValidationException("Journal commit failed: " + e.getMessage());
+        }
+    }
+
+    private long append(RecordType type, Journal.PayloadWriter payload) throws DataValidationException {
+        Journal current = journal;
+        if (current == null) {
+            return 0;
+        }
+        try {
+            return current.append(type, payload);
+        } catch (IOException e) {
+            throw new DataValidationException("Journal write failed: " + e.getMessage());
+        }
+    }
+
+    private static Path snapshotPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".snapshot");
+    }
+
+    private void writeSnapshot(Path path, long sequence, List<String> users, List<BookSnapshot> books) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(users.size());
+            for (String user : users) {
+                out.writeUTF(user);
+            }
+            out.writeInt(books.size());
+            for (BookSnapshot book : books) {
+                out.writeUTF(book.symbol());
+                out.writeByte(book.structure().ordinal());
+                out.writeLong(book.sequence());
+                out.writeInt(book.book().length);
+                out.write(book.book());
+                out.writeInt(book.terminalTradables().size());
+                for (Tradable tradable : book.terminalTradables()) {
+                    out.writeBoolean(tradable instanceof QuoteSide);
+                    out.writeLong(tradable.getNumericId());
+                    out.writeUTF(tradable.getUser());
+                    out.writeInt(tradable.getPrice().getCents());
+                    out.writeByte(tradable.getSide().ordinal());
+                    out.writeInt(tradable.getOriginalVolume());
+                    out.writeInt(tradable.getCancelledVolume());
+                    out.writeInt(tradable.getFilledVolume());
+                }
+            }
+            out.flush();
+            new DataOutputStream(file).writeLong(crc.getValue());
+            file.getFD().sync();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long loadSnapshot(Path path) throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        restoredSequence = 0;
+        restoredSequences = new HashMap<>();
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, Math.max(0, bytes.length - 8));
+        if (bytes.length < 8 || ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong() != crc.getValue()) {
+            throw new DataValidationException("Snapshot is corrupt: " + path);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new DataValidationException("Not a snapshot file: " + path);
+        }
+        restoredSequence = in.readLong();
+        String[] users = new String[in.readInt()];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = in.readUTF();
+        }
+        UserManager.getInstance().init(users);
+        int bookCount = in.readInt();
+        for (int i = 0; i < bookCount; i++) {
+            String symbol = in.readUTF();
+            ProductManager.getInstance().addProduct(symbol, STRUCTURES[in.readByte()]);
+            restoredSequences.put(symbol, in.readLong());
+            byte[] book = new byte[in.readInt()];
+            in.readFully(book);
+            ProductManager.getInstance().getProductBook(symbol).restoreSnapshot(new DataInputStream(new ByteArrayInputStream(book)));
+            int tradableCount = in.readInt();
+            for (int j = 0; j < tradableCount; j++) {
+                boolean quote = in.readBoolean();
+                long id = in.readLong();
+                String user = in.readUTF();
+                Price price = PriceFactory.makePrice(in.readInt());
+                GlobalConstants.BookSide side = SIDES[in.readByte()];
+                int originalVolume = in.readInt();
+                Tradable tradable = quote
+                        ? new QuoteSide(user, symbol, price, originalVolume, side, id)
+                        : new Order(user, symbol, price, originalVolume, side, id);
+                tradable.setRemainingVolume(0);
+                tradable.setCancelledVolume(in.readInt());
+                tradable.setFilledVolume(in.readInt());
+                IdGenerator.advancePast(id);
+                UserManager.getInstance().addTerminal(tradable);
+            }
+        }
+        return restoredSequence;
+    }
+
+    private long replay(Path segment) throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        long lastSequence = 0;
+        long validPosition;
+        try (JournalReader reader = new JournalReader(segment)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                try {
+                    apply(record);
+                } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+                    if (!rejectedSequences.contains(record.sequence())) {
+                        throw e;
+                    }
+                }
+                lastSequence = record.sequence();
+            }
+            validPosition = reader.getValidPosition();
+        }
+        if (Files.size(segment) > validPosition) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(validPosition);
+            }
+        }
+        return lastSequence;
+    }
+
+    private void collectRejected(Path segment) throws IOException {
+        try (JournalReader reader = new JournalReader(segment)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                if (record.type() == RecordType.REJECT) {
+                    rejectedSequences.add(record.payload().getLong());
+                }
+            }
+        }
+    }
+
+    private boolean applied(String product, long sequence) {
+        return sequence <= restoredSequences.getOrDefault(product, restoredSequence);
+    }
+
+    void apply(JournalRecord record) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        ByteBuffer payload = record.payload();
+        switch (record.type()) {
+            case ADD_USER -> {
+                String user = JournalRecord.getString(payload);
+                if (record.sequence() > restoredSequence && !UserManager.getInstance().hasUser(user)) {
+                    UserManager.getInstance().init(new String[]{user});
+                }
+            }
+            case ADD_PRODUCT -> {
+                String symbol = JournalRecord.getString(payload);
+                GlobalConstants.BookStructure structure = STRUCTURES[payload.get()];
+                if (record.sequence() > restoredSequence) {
+                    ProductManager.getInstance().addProduct(symbol, structure);
+                }
+            }
+            case ADD_TRADABLE -> {
+                byte kind = payload.get();
+                long id = payload.getLong();
+                String user = JournalRecord.getString(payload);
+                String product = JournalRecord.getString(payload);
+                int cents = payload.getInt();
+                int volume = payload.getInt();
+                GlobalConstants.BookSide side = SIDES[payload.get()];
+                GlobalConstants.OrderType orderType = payload.hasRemaining() ? ORDER_TYPES[payload.get()] : GlobalConstants.OrderType.LIMIT;
+                GlobalConstants.TimeInForce timeInForce = payload.hasRemaining() ? TIMES_IN_FORCE[payload.get()] : GlobalConstants.TimeInForce.DAY;
+                Tradable tradable = (kind == QUOTE_SIDE)
+                        ? new QuoteSide(user, product, PriceFactory.makePrice(cents), volume, side, id)
+                        : new Order(user, product, PriceFactory.makePrice(cents), volume, side, orderType, timeInForce, id);
+                IdGenerator.advancePast(id);
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().addTradable(tradable);
+                }
+            }
+            case ADD_QUOTE -> {
+                String user = JournalRecord.getString(payload);
+                String product = JournalRecord.getString(payload);
+                long buyId = payload.getLong();
+                int buyCents = payload.getInt();
+                int buyVolume = payload.getInt();
+                long sellId = payload.getLong();
+                int sellCents = payload.getInt();
+                int sellVolume = payload.getInt();
+                IdGenerator.advancePast(Math.max(buyId, sellId));
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().addQuote(new Quote(product, PriceFactory.makePrice(buyCents), buyVolume,
+                            PriceFactory.makePrice(sellCents), sellVolume, user, buyId, sellId));
+                }
+            }
+            case CANCEL -> {
+                String product = JournalRecord.getString(payload);
+                GlobalConstants.BookSide side = SIDES[payload.get()];
+                long id = payload.getLong();
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().getProductBook(product).cancel(side, id);
+                }
+            }
+            case CANCEL_QUOTE -> {
+                String product = JournalRecord.getString(payload);
+                String user = JournalRecord.getString(payload);
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().cancelQuote(product, user);
+                }
+            }
+            case FILL, REJECT -> {
+            }
+            case MODIFY -> {
+                String product = JournalRecord.getString(payload);
+                GlobalConstants.BookSide side = SIDES[payload.get()];
+                long id = payload.getLong();
+                int cents = payload.getInt();
+                int volume = payload.getInt();
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().getProductBook(product).modify(side, id, PriceFactory.makePrice(cents), volume);
+                }
+            }
+            case ALLOCATION_MODE -> {
+                String product = JournalRecord.getString(payload);
+                GlobalConstants.AllocationMode mode = ALLOCATION_MODES[payload.get()];
+                if (!applied(product, record.sequence())) {
+                    ProductManager.getInstance().setAllocationMode(product, mode);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class JournalReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(Journal.HEADER_BYTES);
+    private final CRC32 crc = new CRC32();
+    private long validPosition;
+
+    public JournalReader(Path path) throws IOException {
+        this.channel = Files.exists(path) ? FileChannel.open(path, StandardOpenOption.READ) : null;
+    }
+
+    public JournalRecord next() throws IOException {
+        if (channel == null) {
+            return null;
+        }
+        header.clear();
+        if (!readFully(header)) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int expectedCrc = header.getInt();
+        if (length < 9 || length > Journal.MAX_RECORD_BYTES) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        if (!readFully(body)) {
+            return null;
+        }
+        body.flip();
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        RecordType type = RecordType.fromCode(body.get());
+        if (type == null) {
+            return null;
+        }
+        long sequence = body.getLong();
+        validPosition = channel.position();
+        return new JournalRecord(type, sequence, body.slice());
+    }
+
+    public long getValidPosition() {
+        return validPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public record JournalRecord(
+        RecordType type,
+        long sequence,
+        ByteBuffer payload
+) {
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,15 @@
+package journal;
+
+public enum RecordType {
+    ADD_USER, ADD_PRODUCT, ADD_TRADABLE, ADD_QUOTE, CANCEL, CANCEL_QUOTE, FILL, ALLOCATION_MODE, MODIFY, REJECT;
+
+    private static final RecordType[] VALUES = values();
+
+    public static RecordType fromCode(byte code) {
+        return (code >= 0 && code < VALUES.length) ? VALUES[code] : null;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+}
@@ -0,0 +1,54 @@
+package market;
+
+import interfaces.CurrentMarketObserver;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConflatingDelivery implements Runnable {
+    private final CurrentMarketObserver observer;
+    private final Map<String, CurrentMarketSide[]> pending = new ConcurrentHashMap<>();
+    private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    ConflatingDelivery(CurrentMarketObserver observer) {
+        this.observer = observer;
+    }
+
+    void subscribe(String symbol) {
+        symbols.add(symbol);
+    }
+
+    boolean unsubscribe(String symbol) {
+        symbols.remove(symbol);
+        pending.remove(symbol);
+        return symbols.isEmpty();
+    }
+
+    void offer(String symbol, CurrentMarketSide buySide, CurrentMarketSide sellSide, Executor executor) {
+        pending.put(symbol, new CurrentMarketSide[]{buySide, sellSide});
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        do {
+            Iterator<Map.Entry<String, CurrentMarketSide[]>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CurrentMarketSide[]> entry = iterator.next();
+                String symbol = entry.getKey();
+                CurrentMarketSide[] latest = pending.remove(symbol);
+                if (latest != null && symbols.contains(symbol)) {
+                    observer.updateCurrentMarket(symbol, latest[0], latest[1]);
+                }
+            }
+            scheduled.set(false);
+        } while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+}
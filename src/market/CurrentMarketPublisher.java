@@ -1,13 +1,19 @@
 package market;
+import exceptions.InvalidArgumentException;
 import interfaces.CurrentMarketObserver;
 import market.CurrentMarketSide;
 
 import java.util.*;
-import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 public class CurrentMarketPublisher {
     private static final CurrentMarketPublisher instance = new CurrentMarketPublisher();
-    private final Map<String, List<CurrentMarketObserver>> filters = new HashMap<>();
+    private final Map<String, List<CurrentMarketObserver>> filters = new ConcurrentHashMap<>();
+    private final Map<String, CurrentMarketSide[]> lastPublished = new ConcurrentHashMap<>();
+    private final Map<CurrentMarketObserver, ConflatingDelivery> deliveries = new ConcurrentHashMap<>();
+    private volatile Executor deliveryExecutor;
 
     private CurrentMarketPublisher() {}
 
@@ -15,25 +21,57 @@ public class CurrentMarketPublisher {
         return instance;
     }
 
+    public void enableAsyncDelivery(Executor executor) throws InvalidArgumentException {
+        if (executor == null) {
+            throw new InvalidArgumentException("Executor cannot be null.");
+        }
+        deliveryExecutor = executor;
+    }
+
+    public void disableAsyncDelivery() {
+        deliveryExecutor = null;
+    }
+
     public void subscribeCurrentMarket(String symbol, CurrentMarketObserver observer) {
-        filters.computeIfAbsent(symbol, k -> new ArrayList<>()).add(observer);
+        deliveries.compute(observer, (k, delivery) -> {
+            ConflatingDelivery subscribed = (delivery != null) ? delivery : new ConflatingDelivery(k);
+            subscribed.subscribe(symbol);
+            return subscribed;
+        });
+        filters.computeIfAbsent(symbol, k -> new CopyOnWriteArrayList<>()).add(observer);
     }
 
     public void unSubscribeCurrentMarket(String symbol, CurrentMarketObserver observer) {
-        List<CurrentMarketObserver> observers = filters.get(symbol);
-        if (observers != null) {
+        List<CurrentMarketObserver> remaining = filters.computeIfPresent(symbol, (k, observers) -> {
             observers.remove(observer);
-            if (observers.isEmpty()) {
-                filters.remove(symbol);
-            }
+            return observers.isEmpty() ? null : observers;
+        });
+        if (remaining != null && remaining.contains(observer)) {
+            return;
         }
+        deliveries.computeIfPresent(observer, (k, delivery) -> delivery.unsubscribe(symbol) ? null : delivery);
     }
 
     public void acceptCurrentMarket(String symbol, CurrentMarketSide buySide, CurrentMarketSide sellSide) {
+        CurrentMarketSide[] previous = lastPublished.put(symbol, new CurrentMarketSide[]{buySide, sellSide});
+        if (previous != null && previous[0].equals(buySide) && previous[1].equals(sellSide)) {
+            return;
+        }
+        TopOfBookRecorder.getInstance().record(symbol, buySide.getPrice().getCents(), buySide.getVolume(),
+                sellSide.getPrice().getCents(), sellSide.getVolume());
         List<CurrentMarketObserver> observers = filters.get(symbol);
-        if (observers != null) {
-            for (CurrentMarketObserver observer : observers) {
+        if (observers == null) {
+            return;
+        }
+        Executor executor = deliveryExecutor;
+        for (CurrentMarketObserver observer : observers) {
+            if (executor == null) {
                 observer.updateCurrentMarket(symbol, buySide, sellSide);
+            } else {
+                ConflatingDelivery delivery = deliveries.get(observer);
+                if (delivery != null) {
+                    delivery.offer(symbol, buySide, sellSide, executor);
+                }
             }
         }
     }
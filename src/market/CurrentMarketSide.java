@@ -2,6 +2,8 @@ package market;
 
 import prices.Price;
 
+import java.util.Objects;
+
 public class CurrentMarketSide {
     private final Price price;
     private final int volume;
@@ -11,6 +13,27 @@ public class CurrentMarketSide {
         this.volume = volume;
     }
 
+    public Price getPrice() {
+        return price;
+    }
+
+    public int getVolume() {
+        return volume;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CurrentMarketSide other = (CurrentMarketSide) o;
+        return volume == other.volume && Objects.equals(price, other.price);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(price, volume);
+    }
+
     @Override
     public String toString() {
         String priceStr = (price != null) ? price.toString() : "$0.00";
@@ -1,5 +1,6 @@
 package market;
 
+import events.EventSinkManager;
 import exceptions.InvalidPriceException;
 import prices.Price;
 
@@ -13,19 +14,11 @@ public class CurrentMarketTracker {
     }
 
     public void updateMarket(String symbol, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume) throws InvalidPriceException {
-        double marketWidth = 0.00;
-
-        if (buyPrice != null && sellPrice != null && buyPrice.toDouble() > 0 && sellPrice.toDouble() > 0) {
-            marketWidth = sellPrice.subtract(buyPrice).toDouble();
-        }
+        EventSinkManager.getInstance().getSink().onMarketUpdate(symbol, buyPrice, buyVolume, sellPrice, sellVolume);
 
         CurrentMarketSide buySide = new CurrentMarketSide(buyPrice, buyVolume);
         CurrentMarketSide sellSide = new CurrentMarketSide(sellPrice, sellVolume);
 
-        System.out.println("*********** Current Market ***********");
-        System.out.printf("* %s   %s - %s [$%.2f]%n", symbol, buySide, sellSide, marketWidth);
-        System.out.println("**************************************");
-
         CurrentMarketPublisher.getInstance().acceptCurrentMarket(symbol, buySide, sellSide);
     }
 
@@ -0,0 +1,45 @@
+package market;
+
+import dto.DepthUpdateDTO;
+import interfaces.DepthListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DepthPublisher {
+    private static final DepthPublisher instance = new DepthPublisher();
+    private final Map<String, List<DepthListener>> listeners = new ConcurrentHashMap<>();
+
+    private DepthPublisher() {}
+
+    public static DepthPublisher getInstance() {
+        return instance;
+    }
+
+    public void subscribeDepth(String symbol, DepthListener listener) {
+        listeners.computeIfAbsent(symbol, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void unSubscribeDepth(String symbol, DepthListener listener) {
+        listeners.computeIfPresent(symbol, (k, subscribed) -> {
+            subscribed.remove(listener);
+            return subscribed.isEmpty() ? null : subscribed;
+        });
+    }
+
+    public boolean hasSubscribers(String symbol) {
+        return listeners.containsKey(symbol);
+    }
+
+    public void publish(DepthUpdateDTO update) {
+        List<DepthListener> subscribed = listeners.get(update.product());
+        if (subscribed == null) {
+            return;
+        }
+        for (DepthListener listener : subscribed) {
+            listener.onDepthUpdate(update);
+        }
+    }
+}
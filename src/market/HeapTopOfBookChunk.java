@@ -0,0 +1,62 @@
+package market;
+
+class HeapTopOfBookChunk implements TopOfBookChunk {
+    final long[] timestamps;
+    final int[] bidCents;
+    final int[] bidVolumes;
+    final int[] askCents;
+    final int[] askVolumes;
+    private volatile int size;
+
+    HeapTopOfBookChunk(int capacity) {
+        timestamps = new long[capacity];
+        bidCents = new int[capacity];
+        bidVolumes = new int[capacity];
+        askCents = new int[capacity];
+        askVolumes = new int[capacity];
+    }
+
+    boolean append(long timestamp, int bid, int bidVolume, int ask, int askVolume) {
+        int index = size;
+        if (index == timestamps.length) {
+            return false;
+        }
+        timestamps[index] = timestamp;
+        bidCents[index] = bid;
+        bidVolumes[index] = bidVolume;
+        askCents[index] = ask;
+        askVolumes[index] = askVolume;
+        size = index + 1;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    @Override
+    public int bidCents(int index) {
+        return bidCents[index];
+    }
+
+    @Override
+    public int bidVolume(int index) {
+        return bidVolumes[index];
+    }
+
+    @Override
+    public int askCents(int index) {
+        return askCents[index];
+    }
+
+    @Override
+    public int askVolume(int index) {
+        return askVolumes[index];
+    }
+}
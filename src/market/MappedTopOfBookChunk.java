@@ -0,0 +1,79 @@
+package market;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+class MappedTopOfBookChunk implements TopOfBookChunk {
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int bidOffset;
+    private final int bidVolumeOffset;
+    private final int askOffset;
+    private final int askVolumeOffset;
+
+    private MappedTopOfBookChunk(ByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+        this.bidOffset = size * Long.BYTES;
+        this.bidVolumeOffset = bidOffset + size * Integer.BYTES;
+        this.askOffset = bidVolumeOffset + size * Integer.BYTES;
+        this.askVolumeOffset = askOffset + size * Integer.BYTES;
+    }
+
+    static long bytesFor(int size) {
+        return (long) size * (Long.BYTES + 4 * Integer.BYTES);
+    }
+
+    static MappedTopOfBookChunk spill(FileChannel channel, long position, HeapTopOfBookChunk chunk) throws IOException {
+        int size = chunk.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, bytesFor(size));
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(chunk.timestamps[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(chunk.bidCents[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(chunk.bidVolumes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(chunk.askCents[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(chunk.askVolumes[i]);
+        }
+        return new MappedTopOfBookChunk(buffer, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long timestamp(int index) {
+        return buffer.getLong(index * Long.BYTES);
+    }
+
+    @Override
+    public int bidCents(int index) {
+        return buffer.getInt(bidOffset + index * Integer.BYTES);
+    }
+
+    @Override
+    public int bidVolume(int index) {
+        return buffer.getInt(bidVolumeOffset + index * Integer.BYTES);
+    }
+
+    @Override
+    public int askCents(int index) {
+        return buffer.getInt(askOffset + index * Integer.BYTES);
+    }
+
+    @Override
+    public int askVolume(int index) {
+        return buffer.getInt(askVolumeOffset + index * Integer.BYTES);
+    }
+}
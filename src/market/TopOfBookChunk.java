@@ -0,0 +1,15 @@
+package market;
+
+interface TopOfBookChunk {
+    int size();
+
+    long timestamp(int index);
+
+    int bidCents(int index);
+
+    int bidVolume(int index);
+
+    int askCents(int index);
+
+    int askVolume(int index);
+}
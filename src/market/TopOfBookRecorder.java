@@ -0,0 +1,129 @@
+package market;
+
+import exceptions.InvalidArgumentException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TopOfBookRecorder {
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    public static final int DEFAULT_IN_MEMORY_CHUNKS = 4;
+
+    private static final TopOfBookRecorder instance = new TopOfBookRecorder();
+
+    private final Map<String, TopOfBookSeries> series = new ConcurrentHashMap<>();
+    private final long wallClockBaseNanos = System.currentTimeMillis() * 1_000_000L;
+    private final long nanoTimeBase = System.nanoTime();
+    private volatile boolean enabled;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int inMemoryChunks = DEFAULT_IN_MEMORY_CHUNKS;
+    private Path spillDirectory;
+    private int generation;
+    private ExecutorService spiller;
+
+    private TopOfBookRecorder() {}
+
+    public static TopOfBookRecorder getInstance() {
+        return instance;
+    }
+
+    public synchronized void enable(Path spillDirectory, int chunkSize, int inMemoryChunks) throws InvalidArgumentException {
+        if (enabled) {
+            throw new InvalidArgumentException("Top-of-book recording is already enabled.");
+        }
+        if (chunkSize <= 0 || inMemoryChunks <= 0) {
+            throw new InvalidArgumentException("Chunk size and in-memory chunk count must be positive.");
+        }
+        if (spillDirectory != null) {
+            try {
+                Files.createDirectories(spillDirectory);
+            } catch (IOException e) {
+                throw new InvalidArgumentException("Cannot create spill directory: " + e.getMessage());
+            }
+            spiller = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "top-of-book-spill");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.spillDirectory = spillDirectory;
+        this.generation++;
+        this.chunkSize = chunkSize;
+        this.inMemoryChunks = inMemoryChunks;
+        series.clear();
+        enabled = true;
+    }
+
+    public synchronized void disable() {
+        enabled = false;
+        ExecutorService current = spiller;
+        spiller = null;
+        if (current != null) {
+            current.shutdown();
+            try {
+                current.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (TopOfBookSeries entry : series.values()) {
+            try {
+                entry.closeSpill();
+            } catch (IOException e) {
+                System.err.println("Failed to close top-of-book spill for " + entry.getSymbol() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long now() {
+        return wallClockBaseNanos + (System.nanoTime() - nanoTimeBase);
+    }
+
+    public void record(String symbol, int bidCents, int bidVolume, int askCents, int askVolume) {
+        if (!enabled) {
+            return;
+        }
+        TopOfBookSeries target = series.get(symbol);
+        if (target == null) {
+            target = series.computeIfAbsent(symbol, key -> new TopOfBookSeries(key, chunkSize, generation));
+        }
+        if (target.append(now(), bidCents, bidVolume, askCents, askVolume)) {
+            scheduleSpill(target);
+        }
+    }
+
+    public TopOfBookSeries getSeries(String symbol) {
+        return series.get(symbol);
+    }
+
+    public List<String> getSymbols() {
+        return new ArrayList<>(series.keySet());
+    }
+
+    private synchronized void scheduleSpill(TopOfBookSeries target) {
+        if (spiller == null) {
+            return;
+        }
+        Path directory = spillDirectory;
+        int keep = inMemoryChunks;
+        spiller.execute(() -> {
+            try {
+                target.spill(directory, keep);
+            } catch (IOException e) {
+                System.err.println("Failed to spill top-of-book data for " + target.getSymbol() + ": " + e.getMessage());
+            }
+        });
+    }
+}
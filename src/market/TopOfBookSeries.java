@@ -0,0 +1,216 @@
+package market;
+
+import dto.BarDTO;
+import dto.TopOfBookDTO;
+import interfaces.TopOfBookVisitor;
+import prices.GlobalConstants;
+import prices.PriceFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TopOfBookSeries {
+    private final String symbol;
+    private final int chunkSize;
+    private final int generation;
+    private volatile TopOfBookChunk[] chunks;
+    private HeapTopOfBookChunk active;
+    private FileChannel spillChannel;
+    private long spilledBytes;
+
+    TopOfBookSeries(String symbol, int chunkSize, int generation) {
+        this.symbol = symbol;
+        this.chunkSize = chunkSize;
+        this.generation = generation;
+        this.active = new HeapTopOfBookChunk(chunkSize);
+        this.chunks = new TopOfBookChunk[]{active};
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    boolean append(long timestamp, int bid, int bidVolume, int ask, int askVolume) {
+        if (active.append(timestamp, bid, bidVolume, ask, askVolume)) {
+            return false;
+        }
+        HeapTopOfBookChunk next = new HeapTopOfBookChunk(chunkSize);
+        next.append(timestamp, bid, bidVolume, ask, askVolume);
+        synchronized (this) {
+            TopOfBookChunk[] current = chunks;
+            TopOfBookChunk[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = next;
+            chunks = grown;
+        }
+        active = next;
+        return true;
+    }
+
+    void spill(Path directory, int inMemoryChunks) throws IOException {
+        TopOfBookChunk[] current = chunks;
+        int heapChunks = 0;
+        for (TopOfBookChunk chunk : current) {
+            if (chunk instanceof HeapTopOfBookChunk) {
+                heapChunks++;
+            }
+        }
+        for (int i = 0; i < current.length - 1 && heapChunks > inMemoryChunks; i++) {
+            if (current[i] instanceof HeapTopOfBookChunk heap) {
+                if (spillChannel == null) {
+                    spillChannel = FileChannel.open(directory.resolve(symbol + "." + generation + ".tob"), StandardOpenOption.CREATE,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                MappedTopOfBookChunk mapped = MappedTopOfBookChunk.spill(spillChannel, spilledBytes, heap);
+                spilledBytes += MappedTopOfBookChunk.bytesFor(heap.size());
+                replace(i, mapped);
+                heapChunks--;
+            }
+        }
+    }
+
+    void closeSpill() throws IOException {
+        if (spillChannel != null) {
+            spillChannel.close();
+            spillChannel = null;
+        }
+    }
+
+    private synchronized void replace(int index, TopOfBookChunk chunk) {
+        TopOfBookChunk[] copy = chunks.clone();
+        copy[index] = chunk;
+        chunks = copy;
+    }
+
+    public long size() {
+        long size = 0;
+        for (TopOfBookChunk chunk : chunks) {
+            size += chunk.size();
+        }
+        return size;
+    }
+
+    public long forEach(long fromNanos, long toNanos, TopOfBookVisitor visitor) {
+        long visited = 0;
+        for (TopOfBookChunk chunk : chunks) {
+            int size = chunk.size();
+            if (size == 0 || chunk.timestamp(size - 1) < fromNanos) {
+                continue;
+            }
+            if (chunk.timestamp(0) >= toNanos) {
+                break;
+            }
+            for (int i = firstAtOrAfter(chunk, size, fromNanos); i < size; i++) {
+                long timestamp = chunk.timestamp(i);
+                if (timestamp >= toNanos) {
+                    return visited;
+                }
+                visitor.visit(timestamp, chunk.bidCents(i), chunk.bidVolume(i), chunk.askCents(i), chunk.askVolume(i));
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    public List<TopOfBookDTO> range(long fromNanos, long toNanos) {
+        List<TopOfBookDTO> entries = new ArrayList<>();
+        forEach(fromNanos, toNanos, (timestamp, bid, bidVolume, ask, askVolume) -> entries.add(new TopOfBookDTO(
+                timestamp, PriceFactory.makePrice(bid), bidVolume, PriceFactory.makePrice(ask), askVolume)));
+        return entries;
+    }
+
+    public List<BarDTO> bars(long fromNanos, long toNanos, long barNanos, GlobalConstants.QuoteField field) {
+        if (barNanos <= 0) {
+            throw new IllegalArgumentException("Bar length must be positive.");
+        }
+        BarBuilder builder = new BarBuilder(fromNanos, barNanos, field);
+        forEach(fromNanos, toNanos, builder);
+        builder.finish();
+        return builder.bars;
+    }
+
+    private static int firstAtOrAfter(TopOfBookChunk chunk, int size, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunk.timestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class BarBuilder implements TopOfBookVisitor {
+        private final long fromNanos;
+        private final long barNanos;
+        private final GlobalConstants.QuoteField field;
+        private final List<BarDTO> bars = new ArrayList<>();
+        private long bucket = -1;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private double weightedSum;
+        private long volume;
+        private int samples;
+
+        private BarBuilder(long fromNanos, long barNanos, GlobalConstants.QuoteField field) {
+            this.fromNanos = fromNanos;
+            this.barNanos = barNanos;
+            this.field = field;
+        }
+
+        @Override
+        public void visit(long timestampNanos, int bidCents, int bidVolume, int askCents, int askVolume) {
+            double price;
+            long weight;
+            switch (field) {
+                case BID -> {
+                    price = bidCents;
+                    weight = bidVolume;
+                }
+                case ASK -> {
+                    price = askCents;
+                    weight = askVolume;
+                }
+                default -> {
+                    price = (bidCents + (double) askCents) / 2;
+                    weight = (bidVolume > 0 && askVolume > 0) ? (long) bidVolume + askVolume : 0;
+                }
+            }
+            if (weight <= 0) {
+                return;
+            }
+            long sampleBucket = (timestampNanos - fromNanos) / barNanos;
+            if (sampleBucket != bucket) {
+                finish();
+                bucket = sampleBucket;
+                open = price;
+                high = price;
+                low = price;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            weightedSum += price * weight;
+            volume += weight;
+            samples++;
+        }
+
+        private void finish() {
+            if (samples > 0) {
+                bars.add(new BarDTO(fromNanos + bucket * barNanos, open, high, low, close, weightedSum / volume, volume, samples));
+            }
+            weightedSum = 0;
+            volume = 0;
+            samples = 0;
+        }
+    }
+}
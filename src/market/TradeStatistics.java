@@ -0,0 +1,90 @@
+package market;
+
+import dto.TradeStatisticsDTO;
+import prices.PriceFactory;
+
+import java.util.concurrent.locks.StampedLock;
+
+public class TradeStatistics {
+    private final String product;
+    private final StampedLock lock = new StampedLock();
+    private long tradeCount;
+    private int lastCents;
+    private int lastQuantity;
+    private int highCents;
+    private int lowCents;
+    private long volume;
+    private long notionalCents;
+
+    TradeStatistics(String product) {
+        this.product = product;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    long update(int priceCents, int quantity) {
+        long stamp = lock.writeLock();
+        try {
+            if (tradeCount == 0) {
+                highCents = priceCents;
+                lowCents = priceCents;
+            } else {
+                highCents = Math.max(highCents, priceCents);
+                lowCents = Math.min(lowCents, priceCents);
+            }
+            lastCents = priceCents;
+            lastQuantity = quantity;
+            volume += quantity;
+            notionalCents += (long) priceCents * quantity;
+            return ++tradeCount;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long getTradeCount() {
+        long stamp = lock.tryOptimisticRead();
+        long count = tradeCount;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = tradeCount;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    public TradeStatisticsDTO snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        long count = tradeCount;
+        int last = lastCents;
+        int lastQty = lastQuantity;
+        int high = highCents;
+        int low = lowCents;
+        long vol = volume;
+        long notional = notionalCents;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = tradeCount;
+                last = lastCents;
+                lastQty = lastQuantity;
+                high = highCents;
+                low = lowCents;
+                vol = volume;
+                notional = notionalCents;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (count == 0) {
+            return new TradeStatisticsDTO(product, 0, null, 0, null, null, 0, 0.0);
+        }
+        return new TradeStatisticsDTO(product, count, PriceFactory.makePrice(last), lastQty,
+                PriceFactory.makePrice(high), PriceFactory.makePrice(low), vol, (double) notional / vol);
+    }
+}
@@ -0,0 +1,64 @@
+package market;
+
+import dto.TradeDTO;
+import dto.TradeStatisticsDTO;
+import interfaces.TradeListener;
+import interfaces.Tradable;
+import prices.GlobalConstants;
+import prices.PriceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class TradeTape {
+    private static final TradeTape instance = new TradeTape();
+    private final Map<String, TradeStatistics> statistics = new ConcurrentHashMap<>();
+    private final Map<String, List<TradeListener>> listeners = new ConcurrentHashMap<>();
+
+    private TradeTape() {}
+
+    public static TradeTape getInstance() {
+        return instance;
+    }
+
+    public TradeStatistics getStatistics(String product) {
+        TradeStatistics stats = statistics.get(product);
+        return (stats != null) ? stats : statistics.computeIfAbsent(product, TradeStatistics::new);
+    }
+
+    public TradeStatisticsDTO getStatisticsSnapshot(String product) {
+        return getStatistics(product).snapshot();
+    }
+
+    public List<String> getProducts() {
+        return new ArrayList<>(statistics.keySet());
+    }
+
+    public void subscribeTrades(String product, TradeListener listener) {
+        listeners.computeIfAbsent(product, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void unSubscribeTrades(String product, TradeListener listener) {
+        listeners.computeIfPresent(product, (k, subscribed) -> {
+            subscribed.remove(listener);
+            return subscribed.isEmpty() ? null : subscribed;
+        });
+    }
+
+    public void recordTrade(TradeStatistics stats, Tradable buy, Tradable sell, int priceCents, int quantity,
+            GlobalConstants.BookSide aggressor) {
+        long sequence = stats.update(priceCents, quantity);
+        List<TradeListener> subscribed = listeners.get(stats.getProduct());
+        if (subscribed == null) {
+            return;
+        }
+        TradeDTO trade = new TradeDTO(sequence, stats.getProduct(), buy.getUser(), sell.getUser(),
+                PriceFactory.makePrice(priceCents), quantity, aggressor);
+        for (TradeListener listener : subscribed) {
+            listener.onTrade(trade);
+        }
+    }
+}
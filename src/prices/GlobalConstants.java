@@ -4,5 +4,29 @@ public class GlobalConstants {
     public enum BookSide {
         BUY, SELL
     }
+
+    public enum BookStructure {
+        TICK_ARRAY, TREE_MAP
+    }
+
+    public enum QuoteField {
+        BID, ASK, MID
+    }
+
+    public enum DepthAction {
+        ADD, UPDATE, DELETE
+    }
+
+    public enum OrderType {
+        LIMIT, MARKET
+    }
+
+    public enum TimeInForce {
+        DAY, IOC, FOK
+    }
+
+    public enum AllocationMode {
+        PRO_RATA, FIFO, PRO_RATA_TOP_ORDER
+    }
 }
 
@@ -0,0 +1,42 @@
+package prices;
+
+import exceptions.DataValidationException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class IdGenerator {
+    private static final AtomicLong lastId = new AtomicLong();
+
+    private IdGenerator() {}
+
+    public static long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    public static void advancePast(long id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
+
+    public static String format(long id) {
+        return Long.toString(id);
+    }
+
+    public static long parse(String id) throws DataValidationException {
+        if (id == null || id.isEmpty() || id.length() > 19) {
+            throw new DataValidationException("Invalid id: " + id);
+        }
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new DataValidationException("Invalid id: " + id);
+            }
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw new DataValidationException("Id out of range: " + id);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -5,49 +5,85 @@ import exceptions.InvalidPriceException;
 import dto.TradableDTO;
 import interfaces.Tradable;
 
-import java.util.Objects;
-
 public class Order implements Tradable {
     private final String user;
     private final String product;
-    private final Price price;
+    private Price price;
     private final GlobalConstants.BookSide side;
+    private final GlobalConstants.OrderType orderType;
+    private final GlobalConstants.TimeInForce timeInForce;
     private final int originalVolume;
     private int remainingVolume;
     private int cancelledVolume;
     private int filledVolume;
-    private final String id;
+    private final long id;
+    private String idString;
+    private int userHandle = -1;
 
     public Order(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side) throws InvalidPriceException, InvalidArgumentException {
+        this(user, product, price, originalVolume, side, IdGenerator.nextId());
+    }
+
+    public Order(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side, long id) throws InvalidPriceException, InvalidArgumentException {
+        this(user, product, price, originalVolume, side, GlobalConstants.OrderType.LIMIT, GlobalConstants.TimeInForce.DAY, id);
+    }
+
+    public Order(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side,
+                 GlobalConstants.TimeInForce timeInForce) throws InvalidPriceException, InvalidArgumentException {
+        this(user, product, price, originalVolume, side, GlobalConstants.OrderType.LIMIT, timeInForce, IdGenerator.nextId());
+    }
+
+    public Order(String user, String product, int originalVolume, GlobalConstants.BookSide side,
+                 GlobalConstants.TimeInForce timeInForce) throws InvalidPriceException, InvalidArgumentException {
+        this(user, product, null, originalVolume, side, GlobalConstants.OrderType.MARKET, timeInForce, IdGenerator.nextId());
+    }
+
+    public Order(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side,
+                 GlobalConstants.OrderType orderType, GlobalConstants.TimeInForce timeInForce, long id) throws InvalidPriceException, InvalidArgumentException {
         this.user = validateUser(user);
         this.product = validateProduct(product);
-        this.price = validatePrice(price);
+        this.orderType = validateOrderType(orderType, timeInForce);
+        this.timeInForce = timeInForce;
+        this.price = (orderType == GlobalConstants.OrderType.MARKET) ? PriceFactory.makePrice(0) : validatePrice(price);
         this.side = validateSide(side);
         this.originalVolume = validateVolume(originalVolume);
         this.remainingVolume = originalVolume;
         this.cancelledVolume = 0;
         this.filledVolume = 0;
-        this.id = generateId();
+        this.id = validateId(id);
     }
 
-    private String generateId() {
-        return user + product + price.toString() + System.nanoTime();
+    private long validateId(long id) throws InvalidArgumentException {
+        if (id <= 0) {
+            throw new InvalidArgumentException("Tradable ID must be positive.");
+        }
+        return id;
     }
 
     private String validateUser(String user) throws InvalidArgumentException {
-        if (user == null || !user.matches("[A-Z]{3}")) {
+        if (!SymbolValidator.isUserId(user)) {
             throw new InvalidArgumentException("User must be a 3-letter uppercase code.");
         }
         return user;
     }
 
     private String validateProduct(String product) throws InvalidArgumentException {
-        if (product == null || !product.matches("[A-Z0-9.]{1,5}")) {
+        if (!SymbolValidator.isProductSymbol(product)) {
             throw new InvalidArgumentException("Product symbol must be 1-5 alphanumeric characters.");
         }
         return product;
     }
 
+    private GlobalConstants.OrderType validateOrderType(GlobalConstants.OrderType orderType, GlobalConstants.TimeInForce timeInForce) throws InvalidArgumentException {
+        if (orderType == null || timeInForce == null) {
+            throw new InvalidArgumentException("Order type and time in force cannot be null.");
+        }
+        if (orderType == GlobalConstants.OrderType.MARKET && timeInForce == GlobalConstants.TimeInForce.DAY) {
+            throw new InvalidArgumentException("Market orders must be IOC or FOK.");
+        }
+        return orderType;
+    }
+
     private Price validatePrice(Price price) throws InvalidPriceException {
         if (price == null) {
             throw new InvalidPriceException("Price cannot be null.");
@@ -71,6 +107,14 @@ public class Order implements Tradable {
 
     @Override
     public String getId() {
+        if (idString == null) {
+            idString = IdGenerator.format(id);
+        }
+        return idString;
+    }
+
+    @Override
+    public long getNumericId() {
         return id;
     }
 
@@ -110,6 +154,13 @@ public class Order implements Tradable {
         return price;
     }
 
+    public void setPrice(Price newPrice) throws InvalidPriceException, InvalidArgumentException {
+        if (orderType == GlobalConstants.OrderType.MARKET) {
+            throw new InvalidArgumentException("Market orders have no price to amend.");
+        }
+        this.price = validatePrice(newPrice);
+    }
+
     @Override
     public void setFilledVolume(int newVol) throws InvalidArgumentException {
         if (newVol < 0 || newVol > originalVolume) {
@@ -133,6 +184,16 @@ public class Order implements Tradable {
         return user;
     }
 
+    @Override
+    public int getUserHandle() {
+        return userHandle;
+    }
+
+    @Override
+    public void setUserHandle(int userHandle) {
+        this.userHandle = userHandle;
+    }
+
     @Override
     public String getProduct() {
         return product;
@@ -143,10 +204,20 @@ public class Order implements Tradable {
         return originalVolume;
     }
 
+    @Override
+    public GlobalConstants.OrderType getOrderType() {
+        return orderType;
+    }
+
+    @Override
+    public GlobalConstants.TimeInForce getTimeInForce() {
+        return timeInForce;
+    }
+
     @Override
     public String toString() {
         return String.format("%s %s order: %s at %s, Orig Vol: %d, Rem Vol: %d, Fill Vol: %d, CXL Vol: %d, ID: %s",
-                user, side, product, price, originalVolume, remainingVolume, filledVolume, cancelledVolume, id);
+                user, side, product, (orderType == GlobalConstants.OrderType.MARKET) ? "MKT" : price, originalVolume, remainingVolume, filledVolume, cancelledVolume, getId());
     }
 
     @Override
@@ -154,11 +225,11 @@ public class Order implements Tradable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Order order = (Order) o;
-        return id.equals(order.id);
+        return id == order.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 }
@@ -11,6 +11,10 @@ public class Price implements Comparable<Price>{
         this.cents = cents;
     }
 
+    public int getCents() {
+        return cents;
+    }
+
     public boolean isNegative() {
         return cents < 0;
     }
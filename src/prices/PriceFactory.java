@@ -2,44 +2,118 @@ package prices;
 
 import exceptions.InvalidPriceException;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public abstract class PriceFactory {
-    private static final Map<Integer, Price> priceCache = new HashMap<>();
+    public static final int DEFAULT_HOT_RANGE_MIN_CENTS = 0;
+    public static final int DEFAULT_HOT_RANGE_MAX_CENTS = 1_000_000;
+    public static final int DEFAULT_OVERFLOW_CACHE_SIZE = 10_000;
+
+    private static volatile HotRange hotRange = new HotRange(DEFAULT_HOT_RANGE_MIN_CENTS, DEFAULT_HOT_RANGE_MAX_CENTS);
+    private static final Map<Integer, Price> overflowCache = new ConcurrentHashMap<>();
+    private static volatile int overflowCacheSize = DEFAULT_OVERFLOW_CACHE_SIZE;
+
+    public static void configureHotRange(int minCents, int maxCents) throws InvalidPriceException {
+        if (minCents > maxCents) {
+            throw new InvalidPriceException("Hot range minimum cannot exceed its maximum.");
+        }
+        if ((long) maxCents - minCents >= Integer.MAX_VALUE) {
+            throw new InvalidPriceException("Hot range is too wide.");
+        }
+        hotRange = new HotRange(minCents, maxCents);
+    }
+
+    public static void configureOverflowCacheSize(int maxEntries) throws InvalidPriceException {
+        if (maxEntries < 0) {
+            throw new InvalidPriceException("Overflow cache size cannot be negative.");
+        }
+        overflowCacheSize = maxEntries;
+    }
 
     public static Price makePrice(int cents) {
-        return priceCache.computeIfAbsent(cents, Price::new);
+        HotRange range = hotRange;
+        int index = cents - range.minCents;
+        if (index >= 0 && index < range.prices.length()) {
+            Price price = range.prices.get(index);
+            if (price == null) {
+                Price created = new Price(cents);
+                price = range.prices.compareAndSet(index, null, created) ? created : range.prices.get(index);
+            }
+            return price;
+        }
+        Price price = overflowCache.get(cents);
+        if (price == null) {
+            price = new Price(cents);
+            if (overflowCache.size() < overflowCacheSize) {
+                Price existing = overflowCache.putIfAbsent(cents, price);
+                if (existing != null) {
+                    price = existing;
+                }
+            }
+        }
+        return price;
     }
 
     public static Price makePrice(String stringValueIn) throws InvalidPriceException {
         if (stringValueIn == null || stringValueIn.isEmpty()) {
             throw new InvalidPriceException("Invalid price string: cannot be null or empty");
         }
-        try {
-            String sanitized = stringValueIn.replace("$", "").replace(",", "");
-            int cents;
-            if (sanitized.contains(".")) {
-                String[] parts = sanitized.split("\\.", -1);
-                if (parts.length != 2) {
-                    throw new InvalidPriceException("Invalid price format: too many decimal places");
-                }
-                String centPartStr = parts[1].isEmpty() ? "00" : parts[1];
-                if (centPartStr.length() == 1) {
-                    centPartStr += "0";
-                } else if (centPartStr.length() > 2) {
-                    throw new InvalidPriceException("Invalid price format: too many decimal places");
+        boolean negative = false;
+        boolean signSeen = false;
+        boolean decimalSeen = false;
+        boolean dollarDigitSeen = false;
+        int decimalDigits = 0;
+        long dollars = 0;
+        int cents = 0;
+        for (int i = 0; i < stringValueIn.length(); i++) {
+            char c = stringValueIn.charAt(i);
+            if (c == '$' || c == ',') {
+                continue;
+            }
+            if ((c == '-' || c == '+') && !signSeen && !dollarDigitSeen && !decimalSeen) {
+                negative = c == '-';
+                signSeen = true;
+            } else if (c == '.' && !decimalSeen) {
+                decimalSeen = true;
+            } else if (c >= '0' && c <= '9') {
+                if (decimalSeen) {
+                    if (++decimalDigits > 2) {
+                        throw new InvalidPriceException("Invalid price format: too many decimal places");
+                    }
+                    cents = cents * 10 + (c - '0');
+                } else {
+                    dollarDigitSeen = true;
+                    dollars = dollars * 10 + (c - '0');
+                    if (dollars > Integer.MAX_VALUE / 100) {
+                        throw new InvalidPriceException("Invalid price string: value out of range");
+                    }
                 }
-                int dollars = parts[0].isEmpty() || parts[0].equals("-") ? 0 : Integer.parseInt(parts[0]);
-                int centPart = Integer.parseInt(centPartStr);
-                cents = dollars * 100 + (dollars < 0 || parts[0].equals("-") ? -centPart : centPart);
             } else {
-                cents = Integer.parseInt(sanitized) * 100;
+                throw new InvalidPriceException("Invalid price string");
             }
-            return makePrice(cents);
-        } catch (NumberFormatException e) {
+        }
+        if (!dollarDigitSeen && (!decimalSeen || (signSeen && !negative))) {
             throw new InvalidPriceException("Invalid price string");
         }
+        if (decimalDigits == 1) {
+            cents *= 10;
+        }
+        long value = dollars * 100 + cents;
+        if (value > Integer.MAX_VALUE) {
+            throw new InvalidPriceException("Invalid price string: value out of range");
+        }
+        return makePrice((int) (negative ? -value : value));
     }
-}
 
+    private static class HotRange {
+        private final int minCents;
+        private final AtomicReferenceArray<Price> prices;
+
+        private HotRange(int minCents, int maxCents) {
+            this.minCents = minCents;
+            this.prices = new AtomicReferenceArray<>(maxCents - minCents + 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package prices;
+
+public final class SymbolValidator {
+    private SymbolValidator() {}
+
+    public static boolean isUserId(String value) {
+        if (value == null || value.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isProductSymbol(String value) {
+        if (value == null || value.isEmpty() || value.length() > 5) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isSymbolChar(c) && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isListingSymbol(String value) {
+        if (value == null) {
+            return false;
+        }
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return isSymbolRun(value, 0, value.length());
+        }
+        return isSymbolRun(value, 0, dot) && isSymbolRun(value, dot + 1, value.length());
+    }
+
+    private static boolean isSymbolRun(String value, int start, int end) {
+        int length = end - start;
+        if (length < 1 || length > 5) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isSymbolChar(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSymbolChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
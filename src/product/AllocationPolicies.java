@@ -0,0 +1,38 @@
+package product;
+
+import interfaces.AllocationPolicy;
+import prices.GlobalConstants;
+
+public final class AllocationPolicies {
+    private static final AllocationPolicy PRO_RATA = AllocationPolicies::proRata;
+    private static final AllocationPolicy FIFO = AllocationPolicies::fifo;
+    private static final AllocationPolicy PRO_RATA_TOP_ORDER = AllocationPolicies::proRataTopOrder;
+
+    private AllocationPolicies() {}
+
+    public static AllocationPolicy forMode(GlobalConstants.AllocationMode mode) {
+        return switch (mode) {
+            case PRO_RATA -> PRO_RATA;
+            case FIFO -> FIFO;
+            case PRO_RATA_TOP_ORDER -> PRO_RATA_TOP_ORDER;
+        };
+    }
+
+    public static int proRata(int position, int orderVolume, int firstOrderVolume, int levelVolume, int volumeToTrade, int unallocated) {
+        int share = (int) (((long) orderVolume * volumeToTrade + levelVolume - 1) / levelVolume);
+        return Math.min(Math.min(share, unallocated), orderVolume);
+    }
+
+    public static int fifo(int position, int orderVolume, int firstOrderVolume, int levelVolume, int volumeToTrade, int unallocated) {
+        return Math.min(orderVolume, unallocated);
+    }
+
+    public static int proRataTopOrder(int position, int orderVolume, int firstOrderVolume, int levelVolume, int volumeToTrade, int unallocated) {
+        int restVolume = levelVolume - firstOrderVolume;
+        if (position == 0 || restVolume <= 0) {
+            return fifo(position, orderVolume, firstOrderVolume, levelVolume, volumeToTrade, unallocated);
+        }
+        int restToTrade = volumeToTrade - Math.min(firstOrderVolume, volumeToTrade);
+        return proRata(position, orderVolume, 0, restVolume, restToTrade, unallocated);
+    }
+}
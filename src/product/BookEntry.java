@@ -0,0 +1,17 @@
+package product;
+
+import interfaces.Tradable;
+import user.User;
+
+class BookEntry {
+    Tradable tradable;
+    PriceLevel level;
+    BookEntry prev;
+    BookEntry next;
+    User user;
+    int userSlot;
+
+    BookEntry(Tradable tradable) {
+        this.tradable = tradable;
+    }
+}
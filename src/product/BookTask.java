@@ -0,0 +1,10 @@
+package product;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+
+@FunctionalInterface
+interface BookTask<T> {
+    T call() throws DataValidationException, InvalidArgumentException, InvalidPriceException;
+}
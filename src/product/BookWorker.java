@@ -0,0 +1,76 @@
+package product;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+class BookWorker implements Runnable {
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    BookWorker(String name) {
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    <T> CompletableFuture<T> submit(BookTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(shutDownException());
+            return future;
+        }
+        Runnable runnable = () -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        tasks.offer(runnable);
+        // shutdown may have raced the offer; if the worker can no longer see the task, fail it here
+        if (!running && tasks.remove(runnable)) {
+            future.completeExceptionally(shutDownException());
+            return future;
+        }
+        LockSupport.unpark(thread);
+        return future;
+    }
+
+    private IllegalStateException shutDownException() {
+        return new IllegalStateException("Worker " + thread.getName() + " has been shut down.");
+    }
+
+    boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (running || !tasks.isEmpty()) {
+            Runnable task = tasks.poll();
+            if (task != null) {
+                task.run();
+                idle = 0;
+            } else if (++idle < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
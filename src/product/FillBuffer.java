@@ -0,0 +1,38 @@
+package product;
+
+import interfaces.Tradable;
+
+import java.util.Arrays;
+
+class FillBuffer {
+    private Tradable[] tradables = new Tradable[16];
+    private int[] quantities = new int[16];
+    private int size;
+
+    void add(Tradable t, int quantity) {
+        if (size == tradables.length) {
+            tradables = Arrays.copyOf(tradables, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        tradables[size] = t;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Tradable tradable(int index) {
+        return tradables[index];
+    }
+
+    int quantity(int index) {
+        return quantities[index];
+    }
+
+    void clear() {
+        Arrays.fill(tradables, 0, size, null);
+        size = 0;
+    }
+}
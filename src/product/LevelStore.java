@@ -0,0 +1,15 @@
+package product;
+
+import prices.Price;
+
+interface LevelStore {
+    boolean isEmpty();
+
+    PriceLevel best();
+
+    PriceLevel next(PriceLevel level);
+
+    PriceLevel getOrCreate(Price price);
+
+    void remove(PriceLevel level);
+}
@@ -0,0 +1,100 @@
+package product;
+
+class LongEntryMap {
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private BookEntry[] values;
+    private int size;
+    private int mask;
+
+    LongEntryMap() {
+        keys = new long[64];
+        values = new BookEntry[64];
+        mask = keys.length - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    BookEntry get(long key) {
+        if (key == EMPTY) return null;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return null;
+        }
+    }
+
+    void put(long key, BookEntry value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Key 0 is reserved.");
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    BookEntry remove(long key) {
+        if (key == EMPTY) return null;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == EMPTY) return null;
+            if (k == key) {
+                BookEntry removed = values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+        }
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int home = slot(k);
+            boolean movable = (hole <= i) ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        BookEntry[] oldValues = values;
+        keys = new long[capacity];
+        values = new BookEntry[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
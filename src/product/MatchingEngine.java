@@ -0,0 +1,82 @@
+package product;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+class MatchingEngine {
+    private final BookWorker[] workers;
+    private volatile BookWorker[] owners = new BookWorker[16];
+    private int nextWorker;
+
+    MatchingEngine(int workerCount) throws InvalidArgumentException {
+        if (workerCount <= 0) {
+            throw new InvalidArgumentException("Worker count must be positive.");
+        }
+        workers = new BookWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new BookWorker("book-worker-" + i);
+        }
+    }
+
+    synchronized void assign(int productHandle) {
+        BookWorker[] table = owners;
+        if (productHandle >= table.length) {
+            table = Arrays.copyOf(table, Math.max(table.length * 2, productHandle + 1));
+        }
+        if (table[productHandle] == null) {
+            table[productHandle] = workers[nextWorker];
+            nextWorker = (nextWorker + 1) % workers.length;
+        }
+        owners = table;
+    }
+
+    <T> CompletableFuture<T> submit(int productHandle, BookTask<T> task) {
+        return ownerOf(productHandle).submit(task);
+    }
+
+    <T> T execute(int productHandle, BookTask<T> task) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        BookWorker owner = ownerOf(productHandle);
+        if (owner.isCurrentThread()) {
+            return task.call();
+        }
+        return await(owner.submit(task));
+    }
+
+    void shutdown() {
+        for (BookWorker worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    private BookWorker ownerOf(int productHandle) {
+        BookWorker[] table = owners;
+        BookWorker owner = (productHandle < table.length) ? table[productHandle] : null;
+        if (owner == null) {
+            assign(productHandle);
+            owner = owners[productHandle];
+        }
+        return owner;
+    }
+
+    static <T> T await(CompletableFuture<T> future) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataValidationException("Interrupted while waiting for the matching engine.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DataValidationException dve) throw dve;
+            if (cause instanceof InvalidArgumentException iae) throw iae;
+            if (cause instanceof InvalidPriceException ipe) throw ipe;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package product;
+
+import prices.Price;
+
+class PriceLevel {
+    private final Price price;
+    private BookEntry head;
+    private BookEntry tail;
+    private int totalVolume;
+    private int orderCount;
+    boolean touched;
+    int publishedVolume;
+    int publishedCount;
+
+    PriceLevel(Price price) {
+        this.price = price;
+    }
+
+    Price getPrice() {
+        return price;
+    }
+
+    BookEntry first() {
+        return head;
+    }
+
+    int getTotalVolume() {
+        return totalVolume;
+    }
+
+    int getOrderCount() {
+        return orderCount;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    void reduceVolume(int volume) {
+        totalVolume -= volume;
+    }
+
+    void clear() {
+        head = null;
+        tail = null;
+        totalVolume = 0;
+        orderCount = 0;
+    }
+
+    void append(BookEntry entry) {
+        entry.level = this;
+        entry.prev = tail;
+        entry.next = null;
+        if (tail == null) {
+            head = entry;
+        } else {
+            tail.next = entry;
+        }
+        tail = entry;
+        totalVolume += entry.tradable.getRemainingVolume();
+        orderCount++;
+    }
+
+    void unlink(BookEntry entry) {
+        if (entry.prev == null) {
+            head = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next == null) {
+            tail = entry.prev;
+        } else {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.level = null;
+        totalVolume -= entry.tradable.getRemainingVolume();
+        orderCount--;
+    }
+}
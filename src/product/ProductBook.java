@@ -3,27 +3,65 @@ package product;
 import exceptions.DataValidationException;
 import exceptions.InvalidArgumentException;
 import exceptions.InvalidPriceException;
+import journal.JournalManager;
 import market.CurrentMarketTracker;
+import market.DepthPublisher;
+import market.TradeStatistics;
+import market.TradeTape;
 import quote.Quote;
+import quote.QuoteSide;
+import risk.RiskManager;
+import dto.DepthLevelChangeDTO;
+import dto.DepthLevelDTO;
+import dto.DepthSnapshotDTO;
+import dto.DepthUpdateDTO;
 import dto.TradableDTO;
+import events.EventSinkManager;
+import interfaces.AllocationPolicy;
 import interfaces.Tradable;
 import prices.*;
+import user.UserManager;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ProductBook {
     private final String product;
+    private final GlobalConstants.BookStructure structure;
+    private final int handle;
     private final ProductBookSide buySide;
     private final ProductBookSide sellSide;
+    private final TradeStatistics statistics;
+    private final FillBuffer buyFills = new FillBuffer();
+    private final FillBuffer sellFills = new FillBuffer();
+    private long depthSequence;
+    private GlobalConstants.AllocationMode allocationMode = GlobalConstants.AllocationMode.PRO_RATA;
 
     public ProductBook(String product) throws InvalidArgumentException {
-        if (product == null || !product.matches("[A-Z0-9.]{1,5}")) {
+        this(product, GlobalConstants.BookStructure.TICK_ARRAY);
+    }
+
+    public ProductBook(String product, GlobalConstants.BookStructure structure) throws InvalidArgumentException {
+        this(product, structure, -1);
+    }
+
+    ProductBook(String product, GlobalConstants.BookStructure structure, int handle) throws InvalidArgumentException {
+        if (!SymbolValidator.isProductSymbol(product)) {
             throw new InvalidArgumentException("Invalid product symbol (1-5 alphanumeric characters).");
         }
         this.product = product;
-        this.buySide = new ProductBookSide(GlobalConstants.BookSide.BUY);
-        this.sellSide = new ProductBookSide(GlobalConstants.BookSide.SELL);
+        this.structure = structure;
+        this.handle = handle;
+        this.buySide = new ProductBookSide(GlobalConstants.BookSide.BUY, structure);
+        this.sellSide = new ProductBookSide(GlobalConstants.BookSide.SELL, structure);
+        this.statistics = TradeTape.getInstance().getStatistics(product);
     }
 
     private void updateMarket() throws InvalidPriceException {
+        publishDepth();
         Price buyPrice = (buySide.topOfBookPrice() != null) ? buySide.topOfBookPrice() : PriceFactory.makePrice(0);
         int buyVolume = buySide.topOfBookVolume();
         Price sellPrice = (sellSide.topOfBookPrice() != null) ? sellSide.topOfBookPrice() : PriceFactory.makePrice(0);
@@ -32,26 +70,149 @@ public class ProductBook {
         CurrentMarketTracker.getInstance().updateMarket(product, buyPrice, buyVolume, sellPrice, sellVolume);
     }
 
+    private void publishDepth() {
+        DepthPublisher publisher = DepthPublisher.getInstance();
+        List<DepthLevelChangeDTO> changes = publisher.hasSubscribers(product) ? new ArrayList<>() : null;
+        int changed = buySide.collectDepthChanges(changes) + sellSide.collectDepthChanges(changes);
+        if (changed == 0) {
+            return;
+        }
+        depthSequence++;
+        if (changes != null) {
+            publisher.publish(new DepthUpdateDTO(product, depthSequence, changes));
+        }
+    }
+
+    private boolean addAndMatch(Tradable t) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        UserManager.getInstance().resolve(t);
+        ProductBookSide ownSide = (t.getSide() == GlobalConstants.BookSide.BUY) ? buySide : sellSide;
+        if (t instanceof QuoteSide) {
+            ownSide.add(t);
+            if (t.getSide() == GlobalConstants.BookSide.BUY) {
+                tryTrade(t, null);
+            } else {
+                tryTrade(null, t);
+            }
+            return true;
+        }
+        int limit = limitCents(t);
+        if (t.getTimeInForce() == GlobalConstants.TimeInForce.FOK) {
+            ProductBookSide opposite = (t.getSide() == GlobalConstants.BookSide.BUY) ? sellSide : buySide;
+            if (opposite.volumeThrough(limit, t.getRemainingVolume()) < t.getRemainingVolume()) {
+                cancelRemainder(t);
+                return false;
+            }
+        }
+        sweep(t, limit);
+        boolean traded = t.getFilledVolume() > 0;
+        if (t.getRemainingVolume() > 0 && t.getTimeInForce() == GlobalConstants.TimeInForce.DAY) {
+            ownSide.add(t);
+            return true;
+        }
+        cancelRemainder(t);
+        return traded;
+    }
+
+    private static int limitCents(Tradable t) {
+        if (t.getOrderType() == GlobalConstants.OrderType.MARKET) {
+            return (t.getSide() == GlobalConstants.BookSide.BUY) ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        }
+        return t.getPrice().getCents();
+    }
+
+    private static void cancelRemainder(Tradable t) throws InvalidArgumentException, DataValidationException {
+        if (t.getRemainingVolume() > 0) {
+            RiskManager.getInstance().release(t, t.getRemainingVolume());
+            t.setCancelledVolume(t.getCancelledVolume() + t.getRemainingVolume());
+            t.setRemainingVolume(0);
+        }
+        UserManager.getInstance().addTerminal(t);
+    }
+
+    private void sweep(Tradable t, int limit) throws InvalidArgumentException, DataValidationException {
+        boolean buy = t.getSide() == GlobalConstants.BookSide.BUY;
+        boolean market = t.getOrderType() == GlobalConstants.OrderType.MARKET;
+        ProductBookSide opposite = buy ? sellSide : buySide;
+        FillBuffer incomingFills = buy ? buyFills : sellFills;
+        FillBuffer restingFills = buy ? sellFills : buyFills;
+        PriceLevel level;
+        while (t.getRemainingVolume() > 0 && (level = opposite.bestLevel()) != null) {
+            int levelCents = level.getPrice().getCents();
+            if (buy ? levelCents > limit : levelCents < limit) {
+                return;
+            }
+            int volume = Math.min(t.getRemainingVolume(), level.getTotalVolume());
+            Price buyPrice = (buy && !market) ? t.getPrice() : level.getPrice();
+            if (buy) {
+                fillIncoming(t, volume, incomingFills);
+                opposite.tradeOut(buyPrice, volume, restingFills);
+            } else {
+                opposite.tradeOut(buyPrice, volume, restingFills);
+                fillIncoming(t, volume, incomingFills);
+            }
+            recordTrades(buyPrice.getCents(), t.getSide());
+        }
+    }
+
+    private static void fillIncoming(Tradable t, int volume, FillBuffer fills) throws InvalidArgumentException, DataValidationException {
+        RiskManager.getInstance().release(t, volume);
+        t.setFilledVolume(t.getFilledVolume() + volume);
+        t.setRemainingVolume(t.getRemainingVolume() - volume);
+        EventSinkManager.getInstance().getSink().onFill(t, volume, t.getRemainingVolume() == 0);
+        JournalManager.getInstance().recordFill(t, volume);
+        fills.add(t, volume);
+    }
+
     public TradableDTO add(Tradable t) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
         if (t == null) throw new InvalidArgumentException("Tradable cannot be null.");
-        TradableDTO dto = (t.getSide() == GlobalConstants.BookSide.BUY) ? buySide.add(t) : sellSide.add(t);
-        tryTrade();
-        updateMarket();
+        if (addAndMatch(t)) {
+            updateMarket();
+        }
+        return new TradableDTO(t);
+    }
+
+    public List<TradableDTO> add(List<Tradable> tradables) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        if (tradables == null) throw new InvalidArgumentException("Tradable list cannot be null.");
+        List<TradableDTO> dtos = new ArrayList<>(tradables.size());
+        try {
+            for (Tradable t : tradables) {
+                dtos.add(addUnpublished(t));
+            }
+        } finally {
+            updateMarket();
+        }
+        return dtos;
+    }
+
+    TradableDTO addUnpublished(Tradable t) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        if (t == null) throw new InvalidArgumentException("Tradable cannot be null.");
+        addAndMatch(t);
         return new TradableDTO(t);
     }
 
+    void publishMarket() throws InvalidPriceException {
+        updateMarket();
+    }
+
 
     public TradableDTO[] add(Quote qte) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
         if (qte == null) throw new InvalidArgumentException("Quote cannot be null.");
-        removeQuotesForUser(qte.getUser());
-        TradableDTO buyDTO = buySide.add(qte.getQuoteSide(GlobalConstants.BookSide.BUY));
-        TradableDTO sellDTO = sellSide.add(qte.getQuoteSide(GlobalConstants.BookSide.SELL));
-        tryTrade();
+        QuoteSide buyQuote = qte.getQuoteSide(GlobalConstants.BookSide.BUY);
+        QuoteSide sellQuote = qte.getQuoteSide(GlobalConstants.BookSide.SELL);
+        UserManager.getInstance().resolve(buyQuote);
+        UserManager.getInstance().resolve(sellQuote);
+        buySide.replaceQuote(buyQuote);
+        sellSide.replaceQuote(sellQuote);
+        tryTrade(buyQuote, sellQuote);
         updateMarket();
-        return new TradableDTO[]{buyDTO, sellDTO};
+        return new TradableDTO[]{new TradableDTO(buyQuote), new TradableDTO(sellQuote)};
     }
 
     public TradableDTO cancel(GlobalConstants.BookSide side, String orderId) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        return cancel(side, IdGenerator.parse(orderId));
+    }
+
+    public TradableDTO cancel(GlobalConstants.BookSide side, long orderId) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
         TradableDTO cancelledOrder = (side == GlobalConstants.BookSide.BUY) ? buySide.cancel(orderId) : sellSide.cancel(orderId);
         if (cancelledOrder == null) {
             System.out.println("Failed to cancel " + side + " order\n");
@@ -60,6 +221,77 @@ public class ProductBook {
         return cancelledOrder;
     }
 
+    public TradableDTO modify(GlobalConstants.BookSide side, long orderId, Price newPrice, int newRemainingVolume)
+            throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        if (side == null || newPrice == null) throw new InvalidArgumentException("Side and price cannot be null.");
+        ProductBookSide ownSide = (side == GlobalConstants.BookSide.BUY) ? buySide : sellSide;
+        BookEntry entry = ownSide.find(orderId);
+        if (entry == null) {
+            throw new DataValidationException("No resting " + side + " order " + IdGenerator.format(orderId) + " to modify.");
+        }
+        validateModify(entry, newRemainingVolume);
+        Order order = (Order) entry.tradable;
+        if (newRemainingVolume == 0) {
+            return cancel(side, orderId);
+        }
+        if (newPrice.equals(order.getPrice())) {
+            if (newRemainingVolume == order.getRemainingVolume()) {
+                return new TradableDTO(order);
+            }
+            ownSide.reduce(entry, newRemainingVolume);
+        } else {
+            ownSide.detach(entry);
+            if (newRemainingVolume < order.getRemainingVolume()) {
+                RiskManager.getInstance().release(order, order.getRemainingVolume() - newRemainingVolume);
+                order.setCancelledVolume(order.getCancelledVolume() + order.getRemainingVolume() - newRemainingVolume);
+                order.setRemainingVolume(newRemainingVolume);
+            }
+            order.setPrice(newPrice);
+            sweep(order, limitCents(order));
+            if (order.getRemainingVolume() > 0) {
+                ownSide.reattach(entry);
+            } else {
+                ownSide.retireDetached(entry);
+            }
+        }
+        updateMarket();
+        return new TradableDTO(order);
+    }
+
+    void validateModify(GlobalConstants.BookSide side, long orderId, int newRemainingVolume) throws InvalidArgumentException, DataValidationException {
+        BookEntry entry = ((side == GlobalConstants.BookSide.BUY) ? buySide : sellSide).find(orderId);
+        if (entry == null) {
+            throw new DataValidationException("No resting " + side + " order " + IdGenerator.format(orderId) + " to modify.");
+        }
+        validateModify(entry, newRemainingVolume);
+    }
+
+    int riskPriceCents(Tradable t) {
+        if (t.getOrderType() != GlobalConstants.OrderType.MARKET) {
+            return t.getPrice().getCents();
+        }
+        ProductBookSide opposite = (t.getSide() == GlobalConstants.BookSide.BUY) ? sellSide : buySide;
+        return opposite.peakCentsThrough(t.getRemainingVolume());
+    }
+
+    Tradable findQuote(GlobalConstants.BookSide side, String user) {
+        return ((side == GlobalConstants.BookSide.BUY) ? buySide : sellSide).findQuote(user);
+    }
+
+    Tradable findResting(GlobalConstants.BookSide side, long orderId) {
+        BookEntry entry = ((side == GlobalConstants.BookSide.BUY) ? buySide : sellSide).find(orderId);
+        return (entry != null) ? entry.tradable : null;
+    }
+
+    private static void validateModify(BookEntry entry, int newRemainingVolume) throws InvalidArgumentException {
+        if (!(entry.tradable instanceof Order)) {
+            throw new InvalidArgumentException("Quotes are changed by submitting a new quote.");
+        }
+        if (newRemainingVolume < 0 || newRemainingVolume > entry.tradable.getRemainingVolume()) {
+            throw new InvalidArgumentException("Modified volume must be between 0 and the remaining volume.");
+        }
+    }
+
     public TradableDTO[] removeQuotesForUser(String userName) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
         if (userName == null) {
             System.out.println("Failed to cancel null quote\n");
@@ -72,6 +304,10 @@ public class ProductBook {
     }
 
     public void tryTrade() throws InvalidArgumentException, DataValidationException, InvalidPriceException {
+        tryTrade(null, null);
+    }
+
+    private void tryTrade(Tradable buyIncoming, Tradable sellIncoming) throws InvalidArgumentException, DataValidationException, InvalidPriceException {
         while (true) {
             Price topBuyPrice = buySide.topOfBookPrice();
             Price topSellPrice = sellSide.topOfBookPrice();
@@ -84,9 +320,85 @@ public class ProductBook {
                 return;
             }
             int totalToTrade = Math.min(buySide.topOfBookVolume(), sellSide.topOfBookVolume());
-            buySide.tradeOut(topBuyPrice, totalToTrade);
-            sellSide.tradeOut(topBuyPrice, totalToTrade);
+            buySide.tradeOut(topBuyPrice, totalToTrade, buyFills);
+            sellSide.tradeOut(topBuyPrice, totalToTrade, sellFills);
+            recordTrades(topBuyPrice.getCents(), aggressor(buyIncoming, sellIncoming, topSellPrice));
+        }
+    }
+
+    private static GlobalConstants.BookSide aggressor(Tradable buyIncoming, Tradable sellIncoming, Price topSellPrice) {
+        if (buyIncoming != null && (sellIncoming == null || buyIncoming.getPrice().getCents() >= topSellPrice.getCents())) {
+            return GlobalConstants.BookSide.BUY;
         }
+        return (sellIncoming != null) ? GlobalConstants.BookSide.SELL : null;
+    }
+
+    private void recordTrades(int priceCents, GlobalConstants.BookSide aggressor) {
+        TradeTape tape = TradeTape.getInstance();
+        int buyIndex = 0;
+        int sellIndex = 0;
+        int buyLeft = (buyFills.size() > 0) ? buyFills.quantity(0) : 0;
+        int sellLeft = (sellFills.size() > 0) ? sellFills.quantity(0) : 0;
+        while (buyIndex < buyFills.size() && sellIndex < sellFills.size()) {
+            int quantity = Math.min(buyLeft, sellLeft);
+            tape.recordTrade(statistics, buyFills.tradable(buyIndex), sellFills.tradable(sellIndex), priceCents, quantity, aggressor);
+            buyLeft -= quantity;
+            sellLeft -= quantity;
+            if (buyLeft == 0 && ++buyIndex < buyFills.size()) {
+                buyLeft = buyFills.quantity(buyIndex);
+            }
+            if (sellLeft == 0 && ++sellIndex < sellFills.size()) {
+                sellLeft = sellFills.quantity(sellIndex);
+            }
+        }
+        buyFills.clear();
+        sellFills.clear();
+    }
+
+    public int getHandle() {
+        return handle;
+    }
+
+    public TradeStatistics getStatistics() {
+        return statistics;
+    }
+
+    public GlobalConstants.AllocationMode getAllocationMode() {
+        return allocationMode;
+    }
+
+    public void setAllocationMode(GlobalConstants.AllocationMode allocationMode) throws InvalidArgumentException {
+        if (allocationMode == null) throw new InvalidArgumentException("AllocationMode cannot be null.");
+        this.allocationMode = allocationMode;
+        AllocationPolicy policy = AllocationPolicies.forMode(allocationMode);
+        buySide.setAllocationPolicy(policy);
+        sellSide.setAllocationPolicy(policy);
+    }
+
+    public GlobalConstants.BookStructure getStructure() {
+        return structure;
+    }
+
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeByte(allocationMode.ordinal());
+        buySide.writeSnapshot(out);
+        sellSide.writeSnapshot(out);
+    }
+
+    public void restoreSnapshot(DataInput in) throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        setAllocationMode(GlobalConstants.AllocationMode.values()[in.readByte()]);
+        buySide.restoreSnapshot(in, product);
+        sellSide.restoreSnapshot(in, product);
+        updateMarket();
+    }
+
+    public List<DepthLevelDTO> getDepth(GlobalConstants.BookSide side, int maxLevels) {
+        return (side == GlobalConstants.BookSide.BUY) ? buySide.getDepth(maxLevels) : sellSide.getDepth(maxLevels);
+    }
+
+    public DepthSnapshotDTO getDepthSnapshot() {
+        return new DepthSnapshotDTO(product, depthSequence,
+                buySide.getDepth(Integer.MAX_VALUE), sellSide.getDepth(Integer.MAX_VALUE));
     }
 
     public String getTopOfBookString(GlobalConstants.BookSide side) {
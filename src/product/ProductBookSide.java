@@ -3,170 +3,369 @@ package product;
 import exceptions.DataValidationException;
 import exceptions.InvalidArgumentException;
 import exceptions.InvalidPriceException;
+import dto.DepthLevelChangeDTO;
+import dto.DepthLevelDTO;
 import dto.TradableDTO;
+import events.EventSinkManager;
+import interfaces.AllocationPolicy;
 import interfaces.Tradable;
+import journal.JournalManager;
 import prices.*;
 import quote.QuoteSide;
+import risk.RiskManager;
+import user.User;
 import user.UserManager;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 public class ProductBookSide {
     private final GlobalConstants.BookSide side;
-    private final TreeMap<Price, ArrayList<Tradable>> bookEntries;
+    private final LevelStore bookEntries;
+    private final LongEntryMap entriesById;
+    private final HashMap<String, BookEntry> quotesByUser;
+    private PriceLevel[] touchedLevels = new PriceLevel[16];
+    private int touchedCount;
+    private AllocationPolicy allocationPolicy = AllocationPolicies.forMode(GlobalConstants.AllocationMode.PRO_RATA);
 
     public ProductBookSide(GlobalConstants.BookSide side) throws InvalidArgumentException {
+        this(side, GlobalConstants.BookStructure.TICK_ARRAY);
+    }
+
+    public ProductBookSide(GlobalConstants.BookSide side, GlobalConstants.BookStructure structure) throws InvalidArgumentException {
         if (side == null) throw new InvalidArgumentException("BookSide cannot be null.");
+        if (structure == null) throw new InvalidArgumentException("BookStructure cannot be null.");
         this.side = side;
-        this.bookEntries = new TreeMap<Price, ArrayList<Tradable>>(
-                side == GlobalConstants.BookSide.BUY ? Comparator.<Price>reverseOrder() : Comparator.<Price>naturalOrder()
-        );
+        this.bookEntries = (structure == GlobalConstants.BookStructure.TREE_MAP)
+                ? new TreeMapLevelStore(side)
+                : new TickArrayLevelStore(side);
+        this.entriesById = new LongEntryMap();
+        this.quotesByUser = new HashMap<>();
     }
 
-    public TradableDTO add(Tradable t) throws DataValidationException {
-        bookEntries.computeIfAbsent(t.getPrice(), k -> new ArrayList<>()).add(t);
-        TradableDTO dto = new TradableDTO(t);
+    void setAllocationPolicy(AllocationPolicy allocationPolicy) {
+        this.allocationPolicy = allocationPolicy;
+    }
 
-        UserManager.getInstance().updateTradable(t.getUser(), dto);
-        return dto;
+    public void add(Tradable t) throws DataValidationException {
+        insert(t);
     }
 
     public TradableDTO cancel(String tradableId) throws InvalidArgumentException, DataValidationException {
-        for (Price price : bookEntries.keySet()) {
-            Iterator<Tradable> iterator = bookEntries.get(price).iterator();
-            while (iterator.hasNext()) {
-                Tradable t = iterator.next();
-                if (t.getId().equals(tradableId)) {
-                    //System.out.println("**CANCEL: " + t);
-                    t.setCancelledVolume(t.getCancelledVolume() + t.getRemainingVolume());
-                    t.setRemainingVolume(0);
-                    iterator.remove();
-
-                    if (bookEntries.get(price).isEmpty()) {
-                        bookEntries.remove(price);
-                    }
-
-                    TradableDTO dto = new TradableDTO(t);
-                    UserManager.getInstance().updateTradable(t.getUser(), dto);
-                    return dto;
-                }
-            }
+        return cancel(IdGenerator.parse(tradableId));
+    }
+
+    public TradableDTO cancel(long tradableId) throws InvalidArgumentException, DataValidationException {
+        BookEntry entry = entriesById.get(tradableId);
+        if (entry == null) {
+            return null;
         }
-        return null;
+        Tradable t = entry.tradable;
+        //System.out.println("**CANCEL: " + t);
+        removeEntry(entry);
+        RiskManager.getInstance().release(t, t.getRemainingVolume());
+        t.setCancelledVolume(t.getCancelledVolume() + t.getRemainingVolume());
+        t.setRemainingVolume(0);
+        retire(entry);
+        return new TradableDTO(t);
+    }
+
+    BookEntry find(long tradableId) {
+        return entriesById.get(tradableId);
+    }
+
+    Tradable findQuote(String user) {
+        BookEntry entry = quotesByUser.get(user);
+        return (entry != null) ? entry.tradable : null;
+    }
+
+    void reduce(BookEntry entry, int newRemaining) throws InvalidArgumentException {
+        Tradable t = entry.tradable;
+        int reduction = t.getRemainingVolume() - newRemaining;
+        touch(entry.level);
+        entry.level.reduceVolume(reduction);
+        RiskManager.getInstance().release(t, reduction);
+        t.setCancelledVolume(t.getCancelledVolume() + reduction);
+        t.setRemainingVolume(newRemaining);
+    }
+
+    void detach(BookEntry entry) {
+        removeEntry(entry);
+    }
+
+    void reattach(BookEntry entry) {
+        PriceLevel level = bookEntries.getOrCreate(entry.tradable.getPrice());
+        touch(level);
+        level.append(entry);
+        entriesById.put(entry.tradable.getNumericId(), entry);
+    }
+
+    void retireDetached(BookEntry entry) throws DataValidationException {
+        retire(entry);
     }
 
     public TradableDTO removeQuotesForUser(String userName) throws InvalidArgumentException, DataValidationException {
-        for (Price price : bookEntries.keySet()) {
-            Iterator<Tradable> iterator = bookEntries.get(price).iterator();
-            while (iterator.hasNext()) {
-                Tradable t = iterator.next();
-                if (t.getUser().equals(userName)) {
-                    TradableDTO dto = cancel(t.getId());
-                    return dto;
-                }
+        BookEntry entry = quotesByUser.get(userName);
+        if (entry == null) {
+            return null;
+        }
+        return cancel(entry.tradable.getNumericId());
+    }
+
+    public void replaceQuote(QuoteSide quoteSide) throws InvalidArgumentException, DataValidationException {
+        removeQuotesForUser(quoteSide.getUser());
+        add(quoteSide);
+    }
+
+    private void insert(Tradable t) throws DataValidationException {
+        User user = UserManager.getInstance().resolve(t);
+        BookEntry entry = new BookEntry(t);
+        PriceLevel level = bookEntries.getOrCreate(t.getPrice());
+        touch(level);
+        level.append(entry);
+        entry.user = user;
+        entry.userSlot = user.addLive(t);
+        entriesById.put(t.getNumericId(), entry);
+        if (t instanceof QuoteSide) {
+            quotesByUser.put(t.getUser(), entry);
+        }
+    }
+
+    void writeSnapshot(DataOutput out) throws IOException {
+        for (PriceLevel level = bookEntries.best(); level != null; level = bookEntries.next(level)) {
+            out.writeInt(level.getOrderCount());
+            out.writeInt(level.getPrice().getCents());
+            for (BookEntry entry = level.first(); entry != null; entry = entry.next) {
+                Tradable t = entry.tradable;
+                out.writeBoolean(t instanceof QuoteSide);
+                out.writeLong(t.getNumericId());
+                out.writeUTF(t.getUser());
+                out.writeInt(t.getOriginalVolume());
+                out.writeInt(t.getRemainingVolume());
+                out.writeInt(t.getFilledVolume());
+                out.writeInt(t.getCancelledVolume());
+            }
+        }
+        out.writeInt(0);
+    }
+
+    void restoreSnapshot(DataInput in, String product) throws IOException, DataValidationException, InvalidArgumentException, InvalidPriceException {
+        int count;
+        while ((count = in.readInt()) > 0) {
+            Price price = PriceFactory.makePrice(in.readInt());
+            for (int i = 0; i < count; i++) {
+                boolean quote = in.readBoolean();
+                long id = in.readLong();
+                String user = in.readUTF();
+                int originalVolume = in.readInt();
+                Tradable t = quote
+                        ? new QuoteSide(user, product, price, originalVolume, side, id)
+                        : new Order(user, product, price, originalVolume, side, id);
+                t.setRemainingVolume(in.readInt());
+                t.setFilledVolume(in.readInt());
+                t.setCancelledVolume(in.readInt());
+                IdGenerator.advancePast(id);
+                insert(t);
             }
         }
-        return null;
+    }
+
+    private void retire(BookEntry entry) throws DataValidationException {
+        UserManager.getInstance().retireTradable(entry.user, entry.userSlot);
+    }
+
+    private void removeEntry(BookEntry entry) {
+        PriceLevel level = entry.level;
+        touch(level);
+        level.unlink(entry);
+        entriesById.remove(entry.tradable.getNumericId());
+        if (quotesByUser.get(entry.tradable.getUser()) == entry) {
+            quotesByUser.remove(entry.tradable.getUser());
+        }
+        if (level.isEmpty()) {
+            bookEntries.remove(level);
+        }
     }
 
     public void tradeOut(Price price, int volToTrade) throws InvalidArgumentException, DataValidationException {
+        tradeOut(price, volToTrade, null);
+    }
+
+    void tradeOut(Price price, int volToTrade, FillBuffer fills) throws InvalidArgumentException, DataValidationException {
         try {
-            if (bookEntries.isEmpty() || bookEntries.firstKey().greaterThan(price)) return;
+            if (bookEntries.isEmpty() || bookEntries.best().getPrice().greaterThan(price)) return;
         } catch (InvalidPriceException e) {
             System.err.println("Error in tradeOut: " + e.getMessage());
             return;
         }
 
-        List<Tradable> tradablesAtPrice = bookEntries.get(bookEntries.firstKey());
-        int totalVolAtPrice = tradablesAtPrice.stream().mapToInt(Tradable::getRemainingVolume).sum();
+        PriceLevel tradablesAtPrice = bookEntries.best();
+        int totalVolAtPrice = tradablesAtPrice.getTotalVolume();
+        touch(tradablesAtPrice);
 
         if (volToTrade >= totalVolAtPrice) {
-            for (Tradable t : tradablesAtPrice) {
+            for (BookEntry entry = tradablesAtPrice.first(); entry != null; entry = entry.next) {
+                Tradable t = entry.tradable;
                 int filledVolume = t.getRemainingVolume();
+                RiskManager.getInstance().release(t, filledVolume);
 
                 t.setFilledVolume(t.getFilledVolume() + t.getRemainingVolume());
                 t.setRemainingVolume(0);
 
-                String tradeType = (t instanceof QuoteSide) ? "quote" : "order";
-
-                System.out.printf(
-                        "\tFULL FILL: (%s %3d) %s  %s side %s for %s: Price: %s, Orig Vol: %3d, Rem Vol: %3d, Fill Vol: %3d, Cxl'd Vol: %3d, ID: %s\n",
-                        t.getSide(), filledVolume, t.getUser(), t.getSide(), tradeType, t.getProduct(),
-                        t.getPrice(), t.getOriginalVolume(), t.getRemainingVolume(),
-                        t.getFilledVolume(), t.getCancelledVolume(), t.getId()
-                );
+                EventSinkManager.getInstance().getSink().onFill(t, filledVolume, true);
+                JournalManager.getInstance().recordFill(t, filledVolume);
+                if (fills != null) {
+                    fills.add(t, filledVolume);
+                }
 
-                UserManager.getInstance().updateTradable(t.getUser(), new TradableDTO(t));
+                retire(entry);
+                entriesById.remove(t.getNumericId());
+                if (quotesByUser.get(t.getUser()) == entry) {
+                    quotesByUser.remove(t.getUser());
+                }
             }
-            bookEntries.remove(price);
+            tradablesAtPrice.clear();
+            bookEntries.remove(tradablesAtPrice);
             return;
         }
 
         int remainder = volToTrade;
-        Iterator<Tradable> iterator = tradablesAtPrice.iterator();
-        while (iterator.hasNext() && remainder > 0) {
-            Tradable t = iterator.next();
-            double ratio = (double) t.getRemainingVolume() / totalVolAtPrice;
-            int toTrade = (int) Math.ceil(ratio * volToTrade);
-            toTrade = Math.min(toTrade, remainder);
-            toTrade = Math.min(toTrade, t.getRemainingVolume());
-
-            int originalRemaining = t.getRemainingVolume();
+        int firstVolume = tradablesAtPrice.first().tradable.getRemainingVolume();
+        int position = 0;
+        BookEntry entry = tradablesAtPrice.first();
+        while (entry != null && remainder > 0) {
+            Tradable t = entry.tradable;
+            BookEntry next = entry.next;
+            int toTrade = allocationPolicy.allocate(position++, t.getRemainingVolume(), firstVolume, totalVolAtPrice, volToTrade, remainder);
+            if (toTrade <= 0) {
+                entry = next;
+                continue;
+            }
             int filledVolume = toTrade;
+            RiskManager.getInstance().release(t, filledVolume);
 
             t.setFilledVolume(t.getFilledVolume() + toTrade);
             t.setRemainingVolume(t.getRemainingVolume() - toTrade);
+            tradablesAtPrice.reduceVolume(toTrade);
             remainder -= toTrade;
 
-            String tradeType = (t instanceof QuoteSide) ? "quote" : "order";
-
+            JournalManager.getInstance().recordFill(t, filledVolume);
+            if (fills != null) {
+                fills.add(t, filledVolume);
+            }
             if (t.getRemainingVolume() == 0) {
-                System.out.printf(
-                        "\tFULL FILL: (%s %3d) %s  %s side %s for %s: Price: %s, Orig Vol: %3d, Rem Vol: %3d, Fill Vol: %3d, Cxl'd Vol: %3d, ID: %s\n",
-                        t.getSide(), filledVolume, t.getUser(), t.getSide(), tradeType, t.getProduct(),
-                        t.getPrice(), t.getOriginalVolume(), t.getRemainingVolume(),
-                        t.getFilledVolume(), t.getCancelledVolume(), t.getId()
-                );
-                iterator.remove();
+                EventSinkManager.getInstance().getSink().onFill(t, filledVolume, true);
+                removeEntry(entry);
+                retire(entry);
+            } else {
+                EventSinkManager.getInstance().getSink().onFill(t, filledVolume, false);
+            }
+            entry = next;
+        }
+    }
+
+    private void touch(PriceLevel level) {
+        if (level.touched) {
+            return;
+        }
+        level.touched = true;
+        if (touchedCount == touchedLevels.length) {
+            touchedLevels = Arrays.copyOf(touchedLevels, touchedCount * 2);
+        }
+        touchedLevels[touchedCount++] = level;
+    }
+
+    int collectDepthChanges(List<DepthLevelChangeDTO> changes) {
+        int changed = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            PriceLevel level = touchedLevels[i];
+            touchedLevels[i] = null;
+            level.touched = false;
+            int volume = level.getTotalVolume();
+            int count = level.getOrderCount();
+            GlobalConstants.DepthAction action;
+            if (count == 0) {
+                if (level.publishedCount == 0) {
+                    continue;
+                }
+                action = GlobalConstants.DepthAction.DELETE;
+                volume = 0;
+            } else if (level.publishedCount == 0) {
+                action = GlobalConstants.DepthAction.ADD;
+            } else if (volume != level.publishedVolume || count != level.publishedCount) {
+                action = GlobalConstants.DepthAction.UPDATE;
             } else {
-                System.out.printf(
-                        "\tPARTIAL FILL: (%s %3d) %s  %s side %s for %s: Price: %s, Orig Vol: %3d, Rem Vol: %3d, Fill Vol: %3d, Cxl'd Vol: %3d, ID: %s\n",
-                        t.getSide(), filledVolume, t.getUser(), t.getSide(), tradeType, t.getProduct(),
-                        t.getPrice(), t.getOriginalVolume(), t.getRemainingVolume(),
-                        t.getFilledVolume(), t.getCancelledVolume(), t.getId()
-                );
+                continue;
+            }
+            level.publishedVolume = volume;
+            level.publishedCount = count;
+            changed++;
+            if (changes != null) {
+                changes.add(new DepthLevelChangeDTO(side, action, level.getPrice(), volume, count));
             }
+        }
+        touchedCount = 0;
+        return changed;
+    }
 
-            UserManager.getInstance().updateTradable(t.getUser(), new TradableDTO(t));
+    int volumeThrough(int limitCents, int needed) {
+        int available = 0;
+        if (bookEntries.isEmpty()) {
+            return available;
         }
+        for (PriceLevel level = bookEntries.best(); level != null && available < needed; level = bookEntries.next(level)) {
+            int cents = level.getPrice().getCents();
+            if ((side == GlobalConstants.BookSide.BUY) ? cents < limitCents : cents > limitCents) {
+                break;
+            }
+            available += level.getTotalVolume();
+        }
+        return available;
+    }
 
-        if (tradablesAtPrice.isEmpty()) {
-            bookEntries.remove(price);
+    int peakCentsThrough(int needed) {
+        int peak = 0;
+        int available = 0;
+        for (PriceLevel level = bookEntries.best(); level != null && available < needed; level = bookEntries.next(level)) {
+            peak = Math.max(peak, Math.abs(level.getPrice().getCents()));
+            available += level.getTotalVolume();
         }
+        return peak;
     }
 
+    PriceLevel bestLevel() {
+        return bookEntries.isEmpty() ? null : bookEntries.best();
+    }
 
     public int topOfBookVolume() {
         if (bookEntries.isEmpty()) return 0;
-        return bookEntries.get(bookEntries.firstKey()).stream().mapToInt(Tradable::getRemainingVolume).sum();
+        return bookEntries.best().getTotalVolume();
     }
 
     public Price topOfBookPrice() {
         if (bookEntries.isEmpty()) return null;
-        return bookEntries.firstKey();
+        return bookEntries.best().getPrice();
+    }
+
+    public List<DepthLevelDTO> getDepth(int maxLevels) {
+        List<DepthLevelDTO> depth = new ArrayList<>(Math.max(0, Math.min(maxLevels, 16)));
+        for (PriceLevel level = bookEntries.best(); level != null && depth.size() < maxLevels; level = bookEntries.next(level)) {
+            depth.add(new DepthLevelDTO(level.getPrice(), level.getTotalVolume(), level.getOrderCount()));
+        }
+        return depth;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
 
-        for (Map.Entry<Price, ArrayList<Tradable>> entry : bookEntries.entrySet()) {
-            Price price = entry.getKey();
-            ArrayList<Tradable> tradables = entry.getValue();
-
-            sb.append("\t").append(price).append(":\n");
+        for (PriceLevel level = bookEntries.best(); level != null; level = bookEntries.next(level)) {
+            sb.append("\t").append(level.getPrice()).append(":\n");
 
-            for (Tradable t : tradables) {
+            for (BookEntry entry = level.first(); entry != null; entry = entry.next) {
+                Tradable t = entry.tradable;
                 sb.append("\t\t").append(t.getUser()).append(" ")
                         .append(t.getSide()).append(" ")
                         .append((t instanceof Order) ? "side order" : "side quote")
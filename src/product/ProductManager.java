@@ -4,22 +4,36 @@ import exceptions.DataValidationException;
 import exceptions.InvalidArgumentException;
 import exceptions.InvalidPriceException;
 import quote.Quote;
+import dto.DepthSnapshotDTO;
 import dto.TradableDTO;
+import dto.TradableResultDTO;
 import interfaces.Tradable;
+import journal.BookSnapshot;
+import journal.JournalManager;
 import prices.*;
+import risk.RiskManager;
 import user.UserManager;
 
-import java.util.HashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ProductManager {
     private static ProductManager instance;
     private final Map<String, ProductBook> productBooks;
     private final Random random;
+    private volatile MatchingEngine engine;
 
     private ProductManager() {
-        productBooks = new HashMap<>();
+        productBooks = new ConcurrentHashMap<>();
         random = new Random();
     }
 
@@ -30,12 +44,46 @@ public class ProductManager {
         return instance;
     }
 
+    public synchronized void enableConcurrentMode(int workerCount) throws InvalidArgumentException {
+        if (engine != null) {
+            throw new InvalidArgumentException("Concurrent mode is already enabled.");
+        }
+        MatchingEngine newEngine = new MatchingEngine(workerCount);
+        for (ProductBook book : productBooks.values()) {
+            newEngine.assign(book.getHandle());
+        }
+        engine = newEngine;
+    }
+
+    public synchronized void disableConcurrentMode() {
+        MatchingEngine current = engine;
+        engine = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    public boolean isConcurrentMode() {
+        return engine != null;
+    }
+
     public void addProduct(String symbol) throws DataValidationException, InvalidArgumentException {
-        if (symbol == null || !symbol.matches("^[A-Z0-9]{1,5}(\\.[A-Z0-9]{1,5})?$")) {
+        addProduct(symbol, GlobalConstants.BookStructure.TICK_ARRAY);
+    }
+
+    public synchronized void addProduct(String symbol, GlobalConstants.BookStructure structure) throws DataValidationException, InvalidArgumentException {
+        if (!SymbolValidator.isListingSymbol(symbol)) {
             throw new DataValidationException("Invalid product symbol: " + symbol);
         }
-        if (!productBooks.containsKey(symbol)) {
-            productBooks.put(symbol, new ProductBook(symbol));
+        ProductBook book = productBooks.get(symbol);
+        if (book == null) {
+            book = new ProductBook(symbol, structure, productBooks.size());
+            productBooks.put(symbol, book);
+            JournalManager.getInstance().recordProduct(symbol, structure);
+        }
+        MatchingEngine current = engine;
+        if (current != null) {
+            current.assign(book.getHandle());
         }
     }
 
@@ -47,6 +95,46 @@ public class ProductManager {
         return book;
     }
 
+    public List<String> getProductSymbols() {
+        return new ArrayList<>(productBooks.keySet());
+    }
+
+    public BookSnapshot snapshotBook(String symbol) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        ProductBook book = getProductBook(symbol);
+        return execute(book, () -> captureSnapshot(symbol, book));
+    }
+
+    public void setAllocationMode(String symbol, GlobalConstants.AllocationMode mode) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        if (mode == null) {
+            throw new InvalidArgumentException("AllocationMode cannot be null.");
+        }
+        ProductBook book = getProductBook(symbol);
+        execute(book, () -> {
+            long sequence = JournalManager.getInstance().recordAllocationMode(symbol, mode);
+            return applyJournaled(sequence, () -> {
+                book.setAllocationMode(mode);
+                return null;
+            });
+        });
+    }
+
+    public DepthSnapshotDTO getDepthSnapshot(String symbol) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        ProductBook book = getProductBook(symbol);
+        return execute(book, book::getDepthSnapshot);
+    }
+
+    private BookSnapshot captureSnapshot(String symbol, ProductBook book) throws DataValidationException {
+        long sequence = JournalManager.getInstance().getLastSequence();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            book.writeSnapshot(out);
+        } catch (IOException e) {
+            throw new DataValidationException("Failed to snapshot product " + symbol + ": " + e.getMessage());
+        }
+        return new BookSnapshot(symbol, book.getStructure(), sequence, bytes.toByteArray(),
+                UserManager.getInstance().getTerminalTradables(symbol));
+    }
+
     public String getRandomProduct() throws DataValidationException {
         if (productBooks.isEmpty()) {
             throw new DataValidationException("No products available.");
@@ -60,9 +148,100 @@ public class ProductManager {
             throw new DataValidationException("Tradable cannot be null.");
         }
         ProductBook book = getProductBook(tradable.getProduct());
-        TradableDTO dto = book.add(tradable);
-        UserManager.getInstance().updateTradable(tradable.getUser(), dto);
-        return dto;
+        return execute(book, () -> addToBook(book, tradable));
+    }
+
+    public CompletableFuture<TradableDTO> submitTradable(Tradable tradable) throws DataValidationException {
+        if (tradable == null) {
+            throw new DataValidationException("Tradable cannot be null.");
+        }
+        ProductBook book = getProductBook(tradable.getProduct());
+        return submit(book, () -> addToBook(book, tradable));
+    }
+
+    private TradableDTO addToBook(ProductBook book, Tradable tradable) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        UserManager.getInstance().resolve(tradable);
+        long marketNotional = RiskManager.getInstance().checkOrder(tradable, book.riskPriceCents(tradable));
+        try {
+            long sequence = JournalManager.getInstance().recordTradable(tradable);
+            return applyJournaled(sequence, () -> book.add(tradable));
+        } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+            releaseUnbooked(book, tradable);
+            throw e;
+        } finally {
+            RiskManager.getInstance().releaseNotional(tradable.getUser(), marketNotional);
+        }
+    }
+
+    public List<TradableResultDTO> addTradables(List<Tradable> tradables) throws DataValidationException {
+        if (tradables == null) {
+            throw new DataValidationException("Tradable list cannot be null.");
+        }
+        Map<String, List<Integer>> positionsByProduct = new LinkedHashMap<>();
+        for (int i = 0; i < tradables.size(); i++) {
+            Tradable tradable = tradables.get(i);
+            if (tradable == null) {
+                throw new DataValidationException("Tradable cannot be null.");
+            }
+            getProductBook(tradable.getProduct());
+            positionsByProduct.computeIfAbsent(tradable.getProduct(), k -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, CompletableFuture<List<TradableResultDTO>>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : positionsByProduct.entrySet()) {
+            ProductBook book = getProductBook(entry.getKey());
+            List<Tradable> batch = new ArrayList<>(entry.getValue().size());
+            for (int position : entry.getValue()) {
+                batch.add(tradables.get(position));
+            }
+            results.put(entry.getKey(), submit(book, () -> addBatchToBook(book, batch)));
+        }
+
+        TradableResultDTO[] collected = new TradableResultDTO[tradables.size()];
+        for (Map.Entry<String, List<Integer>> entry : positionsByProduct.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            try {
+                List<TradableResultDTO> batchResults = MatchingEngine.await(results.get(entry.getKey()));
+                for (int i = 0; i < positions.size(); i++) {
+                    collected[positions.get(i)] = batchResults.get(i);
+                }
+            } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+                for (int position : positions) {
+                    collected[position] = new TradableResultDTO(new TradableDTO(tradables.get(position)), e);
+                }
+            }
+        }
+        return Arrays.asList(collected);
+    }
+
+    private List<TradableResultDTO> addBatchToBook(ProductBook book, List<Tradable> batch) throws DataValidationException, InvalidPriceException {
+        List<TradableResultDTO> results = new ArrayList<>(batch.size());
+        long sequence = 0;
+        try {
+            for (Tradable tradable : batch) {
+                long marketNotional;
+                try {
+                    UserManager.getInstance().resolve(tradable);
+                    marketNotional = RiskManager.getInstance().checkOrder(tradable, book.riskPriceCents(tradable));
+                } catch (DataValidationException e) {
+                    results.add(new TradableResultDTO(new TradableDTO(tradable), e));
+                    continue;
+                }
+                try {
+                    sequence = JournalManager.getInstance().recordTradable(tradable);
+                    results.add(new TradableResultDTO(applyOrReject(sequence, () -> book.addUnpublished(tradable)), null));
+                } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+                    releaseUnbooked(book, tradable);
+                    results.add(new TradableResultDTO(new TradableDTO(tradable), e));
+                } finally {
+                    RiskManager.getInstance().releaseNotional(tradable.getUser(), marketNotional);
+                }
+            }
+        } finally {
+            book.publishMarket();
+        }
+        JournalManager.getInstance().commit(sequence);
+        return results;
     }
 
     public TradableDTO[] addQuote(Quote quote) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
@@ -70,25 +249,131 @@ public class ProductManager {
             throw new DataValidationException("Quote cannot be null.");
         }
         ProductBook book = getProductBook(quote.getSymbol());
-        book.removeQuotesForUser(quote.getUser());
-        return new TradableDTO[]{
-                addTradable(quote.getQuoteSide(GlobalConstants.BookSide.BUY)),
-                addTradable(quote.getQuoteSide(GlobalConstants.BookSide.SELL))
-        };
+        return execute(book, () -> addQuoteToBook(book, quote));
+    }
+
+    public CompletableFuture<TradableDTO[]> submitQuote(Quote quote) throws DataValidationException {
+        if (quote == null) {
+            throw new DataValidationException("Quote cannot be null.");
+        }
+        ProductBook book = getProductBook(quote.getSymbol());
+        return submit(book, () -> addQuoteToBook(book, quote));
+    }
+
+    private TradableDTO[] addQuoteToBook(ProductBook book, Quote quote) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        UserManager.getInstance().resolve(quote.getQuoteSide(GlobalConstants.BookSide.BUY));
+        UserManager.getInstance().resolve(quote.getQuoteSide(GlobalConstants.BookSide.SELL));
+        RiskManager.getInstance().checkQuote(quote, book.findQuote(GlobalConstants.BookSide.BUY, quote.getUser()),
+                book.findQuote(GlobalConstants.BookSide.SELL, quote.getUser()));
+        try {
+            long sequence = JournalManager.getInstance().recordQuote(quote);
+            return applyJournaled(sequence, () -> book.add(quote));
+        } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+            releaseUnbooked(book, quote.getQuoteSide(GlobalConstants.BookSide.BUY));
+            releaseUnbooked(book, quote.getQuoteSide(GlobalConstants.BookSide.SELL));
+            throw e;
+        }
+    }
+
+    private static void releaseUnbooked(ProductBook book, Tradable tradable) {
+        if (book.findResting(tradable.getSide(), tradable.getNumericId()) != tradable) {
+            RiskManager.getInstance().release(tradable, tradable.getRemainingVolume());
+        }
     }
 
     public TradableDTO cancel(TradableDTO tradableDTO) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
         if (tradableDTO == null) {
             throw new DataValidationException("TradableDTO cannot be null.");
         }
-        return getProductBook(tradableDTO.product()).cancel(tradableDTO.side(), tradableDTO.tradableId());
+        ProductBook book = getProductBook(tradableDTO.product());
+        return execute(book, () -> cancelInBook(book, tradableDTO));
+    }
+
+    public CompletableFuture<TradableDTO> submitCancel(TradableDTO tradableDTO) throws DataValidationException {
+        if (tradableDTO == null) {
+            throw new DataValidationException("TradableDTO cannot be null.");
+        }
+        ProductBook book = getProductBook(tradableDTO.product());
+        return submit(book, () -> cancelInBook(book, tradableDTO));
+    }
+
+    private TradableDTO cancelInBook(ProductBook book, TradableDTO tradableDTO) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        long sequence = JournalManager.getInstance().recordCancel(tradableDTO.product(), tradableDTO.side(), tradableDTO.numericId());
+        return applyJournaled(sequence, () -> book.cancel(tradableDTO.side(), tradableDTO.numericId()));
+    }
+
+    public TradableDTO modify(TradableDTO tradableDTO, Price newPrice, int newRemainingVolume) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        if (tradableDTO == null || newPrice == null) {
+            throw new DataValidationException("TradableDTO and price cannot be null.");
+        }
+        ProductBook book = getProductBook(tradableDTO.product());
+        return execute(book, () -> {
+            RiskManager.getInstance().checkMessage(tradableDTO.user());
+            book.validateModify(tradableDTO.side(), tradableDTO.numericId(), newRemainingVolume);
+            Tradable resting = book.findResting(tradableDTO.side(), tradableDTO.numericId());
+            long delta = (resting != null) ? RiskManager.getInstance().reserveReprice(resting, newPrice, newRemainingVolume) : 0;
+            try {
+                long sequence = JournalManager.getInstance().recordModify(tradableDTO.product(), tradableDTO.side(),
+                        tradableDTO.numericId(), newPrice, newRemainingVolume);
+                return applyJournaled(sequence, () -> book.modify(tradableDTO.side(), tradableDTO.numericId(), newPrice, newRemainingVolume));
+            } finally {
+                if (resting != null) {
+                    RiskManager.getInstance().settleReprice(resting, newPrice, delta);
+                }
+            }
+        });
     }
 
     public TradableDTO[] cancelQuote(String symbol, String user) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
         if (symbol == null || user == null) {
             throw new DataValidationException("Symbol and User cannot be null.");
         }
-        return getProductBook(symbol).removeQuotesForUser(user);
+        ProductBook book = getProductBook(symbol);
+        return execute(book, () -> {
+            long sequence = JournalManager.getInstance().recordCancelQuote(symbol, user);
+            return applyJournaled(sequence, () -> book.removeQuotesForUser(user));
+        });
+    }
+
+    private static <T> T applyJournaled(long sequence, BookTask<T> task) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        T result = applyOrReject(sequence, task);
+        JournalManager.getInstance().commit(sequence);
+        return result;
+    }
+
+    private static <T> T applyOrReject(long sequence, BookTask<T> task) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        try {
+            return task.call();
+        } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+            try {
+                JournalManager.getInstance().recordReject(sequence);
+            } catch (DataValidationException journalFailure) {
+                e.addSuppressed(journalFailure);
+            }
+            throw e;
+        }
+    }
+
+    private <T> T execute(ProductBook book, BookTask<T> task) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        MatchingEngine current = engine;
+        if (current == null) {
+            return task.call();
+        }
+        return current.execute(book.getHandle(), task);
+    }
+
+    private <T> CompletableFuture<T> submit(ProductBook book, BookTask<T> task) {
+        MatchingEngine current = engine;
+        if (current != null) {
+            return current.submit(book.getHandle(), task);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(task.call());
+        } catch (DataValidationException | InvalidArgumentException | InvalidPriceException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     @Override
@@ -96,4 +381,3 @@ public class ProductManager {
         return String.join("\n", productBooks.values().stream().map(ProductBook::toString).toList());
     }
 }
-
@@ -0,0 +1,234 @@
+package product;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+class TickArrayLevelStore implements LevelStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    private final boolean buy;
+    private final TreeMap<Integer, PriceLevel> overflow;
+    private PriceLevel[] levels;
+    private long[] occupied;
+    private long[] summary;
+    private int baseCents;
+    private int bestIndex = -1;
+    private int activeLevels;
+
+    TickArrayLevelStore(GlobalConstants.BookSide side) {
+        this.buy = side == GlobalConstants.BookSide.BUY;
+        this.overflow = new TreeMap<Integer, PriceLevel>(buy ? Comparator.<Integer>reverseOrder() : Comparator.<Integer>naturalOrder());
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return activeLevels == 0 && overflow.isEmpty();
+    }
+
+    @Override
+    public PriceLevel best() {
+        PriceLevel best = (bestIndex >= 0) ? levels[bestIndex] : null;
+        if (overflow.isEmpty()) {
+            return best;
+        }
+        return better(best, overflow.firstEntry().getValue());
+    }
+
+    @Override
+    public PriceLevel next(PriceLevel level) {
+        int cents = level.getPrice().getCents();
+        int index = nextActive((int) Math.max(-1, Math.min(levels.length, (long) cents - baseCents)));
+        PriceLevel next = (index >= 0) ? levels[index] : null;
+        if (overflow.isEmpty()) {
+            return next;
+        }
+        Map.Entry<Integer, PriceLevel> beyond = overflow.higherEntry(cents);
+        return better(next, (beyond != null) ? beyond.getValue() : null);
+    }
+
+    @Override
+    public PriceLevel getOrCreate(Price price) {
+        int cents = price.getCents();
+        if (!overflow.isEmpty()) {
+            PriceLevel far = overflow.get(cents);
+            if (far != null) {
+                return far;
+            }
+        }
+        int index = cents - baseCents;
+        if (index < 0 || index >= levels.length) {
+            if (activeLevels == 0) {
+                index = recenter(cents);
+            } else if (span(cents) <= MAX_CAPACITY) {
+                index = grow(cents);
+            } else {
+                return overflow.computeIfAbsent(cents, k -> new PriceLevel(price));
+            }
+        }
+        PriceLevel level = levels[index];
+        if (level == null) {
+            level = new PriceLevel(price);
+            levels[index] = level;
+        }
+        if (level.isEmpty()) {
+            activeLevels++;
+            markActive(index);
+            if (bestIndex < 0 || (buy ? index > bestIndex : index < bestIndex)) {
+                bestIndex = index;
+            }
+        }
+        return level;
+    }
+
+    @Override
+    public void remove(PriceLevel level) {
+        int cents = level.getPrice().getCents();
+        if (!overflow.isEmpty() && overflow.get(cents) == level) {
+            overflow.remove(cents);
+            return;
+        }
+        activeLevels--;
+        int index = cents - baseCents;
+        markEmpty(index);
+        if (index == bestIndex) {
+            bestIndex = (activeLevels == 0) ? -1 : nextActive(index);
+        }
+    }
+
+    private PriceLevel better(PriceLevel a, PriceLevel b) {
+        if (a == null || b == null) {
+            return (a != null) ? a : b;
+        }
+        int aCents = a.getPrice().getCents();
+        int bCents = b.getPrice().getCents();
+        return (buy ? aCents > bCents : aCents < bCents) ? a : b;
+    }
+
+    private int nextActive(int index) {
+        return buy ? activeBelow(index) : activeAbove(index);
+    }
+
+    private void markActive(int index) {
+        occupied[index >>> 6] |= 1L << index;
+        summary[index >>> 12] |= 1L << (index >>> 6);
+    }
+
+    private void markEmpty(int index) {
+        int word = index >>> 6;
+        occupied[word] &= ~(1L << index);
+        if (occupied[word] == 0) {
+            summary[word >>> 6] &= ~(1L << word);
+        }
+    }
+
+    private int activeAbove(int index) {
+        int from = index + 1;
+        if (from >= levels.length) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        if (bits == 0) {
+            word = occupiedWordAbove(word + 1);
+            if (word < 0) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private int occupiedWordAbove(int from) {
+        if (from >= occupied.length) {
+            return -1;
+        }
+        int group = from >>> 6;
+        long bits = summary[group] & (-1L << from);
+        while (bits == 0) {
+            if (++group == summary.length) {
+                return -1;
+            }
+            bits = summary[group];
+        }
+        return (group << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private int activeBelow(int index) {
+        int from = index - 1;
+        if (from < 0) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L >>> (63 - (from & 63)));
+        if (bits == 0) {
+            word = occupiedWordBelow(word - 1);
+            if (word < 0) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    private int occupiedWordBelow(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int group = from >>> 6;
+        long bits = summary[group] & (-1L >>> (63 - (from & 63)));
+        while (bits == 0) {
+            if (--group < 0) {
+                return -1;
+            }
+            bits = summary[group];
+        }
+        return (group << 6) + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    private void allocate(int capacity) {
+        levels = new PriceLevel[capacity];
+        occupied = new long[capacity >>> 6];
+        summary = new long[(occupied.length + 63) >>> 6];
+    }
+
+    private int recenter(int cents) {
+        allocate(INITIAL_CAPACITY);
+        baseCents = cents - INITIAL_CAPACITY / 2;
+        return cents - baseCents;
+    }
+
+    private long span(int cents) {
+        return Math.max((long) baseCents + levels.length - 1, cents) - Math.min((long) baseCents, cents) + 1;
+    }
+
+    private int grow(int cents) {
+        long low = Math.min((long) baseCents, cents);
+        long span = span(cents);
+        int capacity = levels.length;
+        while (capacity < span + span / 2 && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        int newBase = (int) Math.max(Integer.MIN_VALUE, low - (capacity - span) / 2);
+        PriceLevel[] previous = levels;
+        long[] previousOccupied = occupied;
+        int shift = baseCents - newBase;
+        allocate(capacity);
+        System.arraycopy(previous, 0, levels, shift, previous.length);
+        for (int word = 0; word < previousOccupied.length; word++) {
+            for (long bits = previousOccupied[word]; bits != 0; bits &= bits - 1) {
+                markActive((word << 6) + Long.numberOfTrailingZeros(bits) + shift);
+            }
+        }
+        baseCents = newBase;
+        if (bestIndex >= 0) {
+            bestIndex += shift;
+        }
+        return cents - baseCents;
+    }
+}
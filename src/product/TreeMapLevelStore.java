@@ -0,0 +1,45 @@
+package product;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+class TreeMapLevelStore implements LevelStore {
+    private final TreeMap<Price, PriceLevel> levels;
+
+    TreeMapLevelStore(GlobalConstants.BookSide side) {
+        this.levels = new TreeMap<Price, PriceLevel>(
+                side == GlobalConstants.BookSide.BUY ? Comparator.<Price>reverseOrder() : Comparator.<Price>naturalOrder()
+        );
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    @Override
+    public PriceLevel best() {
+        Map.Entry<Price, PriceLevel> first = levels.firstEntry();
+        return (first != null) ? first.getValue() : null;
+    }
+
+    @Override
+    public PriceLevel next(PriceLevel level) {
+        Map.Entry<Price, PriceLevel> higher = levels.higherEntry(level.getPrice());
+        return (higher != null) ? higher.getValue() : null;
+    }
+
+    @Override
+    public PriceLevel getOrCreate(Price price) {
+        return levels.computeIfAbsent(price, PriceLevel::new);
+    }
+
+    @Override
+    public void remove(PriceLevel level) {
+        levels.remove(level.getPrice());
+    }
+}
@@ -1,9 +1,11 @@
 package quote;
 
 import prices.GlobalConstants;
+import prices.IdGenerator;
 import exceptions.InvalidArgumentException;
 import exceptions.InvalidPriceException;
 import prices.Price;
+import prices.SymbolValidator;
 
 public class Quote {
     private final String user;
@@ -12,21 +14,25 @@ public class Quote {
     private final QuoteSide sellSide;
 
     public Quote(String product, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume, String user) throws InvalidPriceException, InvalidArgumentException {
+        this(product, buyPrice, buyVolume, sellPrice, sellVolume, user, IdGenerator.nextId(), IdGenerator.nextId());
+    }
+
+    public Quote(String product, Price buyPrice, int buyVolume, Price sellPrice, int sellVolume, String user, long buyId, long sellId) throws InvalidPriceException, InvalidArgumentException {
         this.user = validateUser(user);
         this.product = validateProduct(product);
-        this.buySide = new QuoteSide(user, product, validatePrice(buyPrice), validateVolume(buyVolume), GlobalConstants.BookSide.BUY);
-        this.sellSide = new QuoteSide(user, product, validatePrice(sellPrice), validateVolume(sellVolume), GlobalConstants.BookSide.SELL);
+        this.buySide = new QuoteSide(user, product, validatePrice(buyPrice), validateVolume(buyVolume), GlobalConstants.BookSide.BUY, buyId);
+        this.sellSide = new QuoteSide(user, product, validatePrice(sellPrice), validateVolume(sellVolume), GlobalConstants.BookSide.SELL, sellId);
     }
 
     private String validateUser(String user) throws InvalidArgumentException {
-        if (user == null || !user.matches("[A-Z]{3}")) {
+        if (!SymbolValidator.isUserId(user)) {
             throw new InvalidArgumentException("User must be a 3-letter uppercase code.");
         }
         return user;
     }
 
     private String validateProduct(String product) throws InvalidArgumentException {
-        if (product == null || !product.matches("[A-Z0-9.]{1,5}")) {
+        if (!SymbolValidator.isProductSymbol(product)) {
             throw new InvalidArgumentException("Product symbol must be 1-5 alphanumeric characters.");
         }
         return product;
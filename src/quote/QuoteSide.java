@@ -3,11 +3,11 @@ package quote;
 import dto.TradableDTO;
 import interfaces.Tradable;
 import prices.GlobalConstants;
+import prices.IdGenerator;
 import exceptions.InvalidArgumentException;
 import exceptions.InvalidPriceException;
 import prices.Price;
-
-import java.util.Objects;
+import prices.SymbolValidator;
 
 public class QuoteSide implements Tradable {
     private final String user;
@@ -18,13 +18,19 @@ public class QuoteSide implements Tradable {
     private int remainingVolume;
     private int cancelledVolume;
     private int filledVolume;
-    private final String id;
+    private final long id;
+    private String idString;
+    private int userHandle = -1;
 
     public QuoteSide(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side) throws InvalidPriceException, InvalidArgumentException {
-        if (user == null || !user.matches("[A-Z]{3}")) {
+        this(user, product, price, originalVolume, side, IdGenerator.nextId());
+    }
+
+    public QuoteSide(String user, String product, Price price, int originalVolume, GlobalConstants.BookSide side, long id) throws InvalidPriceException, InvalidArgumentException {
+        if (!SymbolValidator.isUserId(user)) {
             throw new InvalidArgumentException("User must be a 3-letter uppercase code.");
         }
-        if (product == null || !product.matches("[A-Z0-9.]{1,5}")) {
+        if (!SymbolValidator.isProductSymbol(product)) {
             throw new InvalidArgumentException("Product symbol must be 1-5 alphanumeric characters.");
         }
         if (price == null) {
@@ -36,6 +42,9 @@ public class QuoteSide implements Tradable {
         if (originalVolume <= 0 || originalVolume >= 10000) {
             throw new InvalidArgumentException("Volume must be between 1 and 9999.");
         }
+        if (id <= 0) {
+            throw new InvalidArgumentException("Tradable ID must be positive.");
+        }
 
         this.user = user;
         this.product = product;
@@ -45,15 +54,19 @@ public class QuoteSide implements Tradable {
         this.remainingVolume = originalVolume;
         this.cancelledVolume = 0;
         this.filledVolume = 0;
-        this.id = generateId();
+        this.id = id;
     }
 
-    private String generateId() {
-        return user + product + price.toString() + System.nanoTime();
+    @Override
+    public String getId() {
+        if (idString == null) {
+            idString = IdGenerator.format(id);
+        }
+        return idString;
     }
 
     @Override
-    public String getId() {
+    public long getNumericId() {
         return id;
     }
 
@@ -116,6 +129,16 @@ public class QuoteSide implements Tradable {
         return user;
     }
 
+    @Override
+    public int getUserHandle() {
+        return userHandle;
+    }
+
+    @Override
+    public void setUserHandle(int userHandle) {
+        this.userHandle = userHandle;
+    }
+
     @Override
     public String getProduct() {
         return product;
@@ -126,10 +149,20 @@ public class QuoteSide implements Tradable {
         return originalVolume;
     }
 
+    @Override
+    public GlobalConstants.OrderType getOrderType() {
+        return GlobalConstants.OrderType.LIMIT;
+    }
+
+    @Override
+    public GlobalConstants.TimeInForce getTimeInForce() {
+        return GlobalConstants.TimeInForce.DAY;
+    }
+
     @Override
     public String toString() {
         return String.format("%s %s side quote for %s: %s, Orig Vol: %d, Rem Vol: %d, Fill Vol: %d, CXL Vol: %d, ID: %s",
-                user, side, product, price, originalVolume, remainingVolume, filledVolume, cancelledVolume, id);
+                user, side, product, price, originalVolume, remainingVolume, filledVolume, cancelledVolume, getId());
     }
 
     @Override
@@ -137,11 +170,11 @@ public class QuoteSide implements Tradable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         QuoteSide quoteSide = (QuoteSide) o;
-        return id.equals(quoteSide.id);
+        return id == quoteSide.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 }
@@ -0,0 +1,112 @@
+package replay;
+
+import bench.LatencyHistogram;
+import dto.TradableDTO;
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.InvalidPriceException;
+import prices.Order;
+import product.ProductManager;
+import quote.Quote;
+import user.UserManager;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+public class ReplayEngine {
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+
+    private final PrintStream out;
+    private final Map<String, TradableDTO> ordersByReference = new HashMap<>();
+
+    public ReplayEngine(PrintStream out) {
+        this.out = out;
+    }
+
+    public ReplayResult run(List<ReplayEvent> events, boolean paced, double speed) throws InvalidArgumentException {
+        if (paced && speed <= 0) {
+            throw new InvalidArgumentException("Replay speed must be positive.");
+        }
+        Map<ReplayEventType, LatencyHistogram> byType = new EnumMap<>(ReplayEventType.class);
+        for (ReplayEventType type : ReplayEventType.values()) {
+            byType.put(type, new LatencyHistogram());
+        }
+        long rejected = 0;
+        long firstTimestamp = events.isEmpty() ? 0 : events.get(0).timestampMicros();
+        long start = System.nanoTime();
+        for (ReplayEvent event : events) {
+            long intended;
+            if (paced) {
+                intended = start + (long) ((event.timestampMicros() - firstTimestamp) * 1000 / speed);
+                waitUntil(intended);
+            } else {
+                intended = System.nanoTime();
+            }
+            try {
+                apply(event);
+            } catch (DataValidationException | InvalidArgumentException | InvalidPriceException e) {
+                rejected++;
+                out.println("Rejected line " + event.line() + " " + event.type() + ": " + e.getMessage());
+            }
+            byType.get(event.type()).record(System.nanoTime() - intended);
+        }
+        long elapsed = System.nanoTime() - start;
+        out.flush();
+
+        LatencyHistogram overall = new LatencyHistogram();
+        for (LatencyHistogram histogram : byType.values()) {
+            overall.add(histogram);
+        }
+        return new ReplayResult(events.size(), rejected, elapsed, overall, byType);
+    }
+
+    private void apply(ReplayEvent event) throws DataValidationException, InvalidArgumentException, InvalidPriceException {
+        switch (event.type()) {
+            case USER -> UserManager.getInstance().init(new String[]{event.user()});
+            case PRODUCT -> ProductManager.getInstance().addProduct(event.product());
+            case ORDER -> {
+                if (ordersByReference.containsKey(event.reference())) {
+                    throw new DataValidationException("Duplicate order reference: " + event.reference());
+                }
+                Order order = (event.price() == null)
+                        ? new Order(event.user(), event.product(), event.volume(), event.side(), event.timeInForce())
+                        : new Order(event.user(), event.product(), event.price(), event.volume(), event.side(), event.timeInForce());
+                ordersByReference.put(event.reference(), ProductManager.getInstance().addTradable(order));
+            }
+            case QUOTE -> ProductManager.getInstance().addQuote(new Quote(event.product(), event.price(), event.volume(),
+                    event.sellPrice(), event.sellVolume(), event.user()));
+            case CANCEL -> {
+                TradableDTO order = ordersByReference.remove(event.reference());
+                if (order == null) {
+                    throw new DataValidationException("Unknown order reference: " + event.reference());
+                }
+                if (ProductManager.getInstance().cancel(order) == null) {
+                    out.println("Cancel " + event.reference() + " found nothing resting");
+                }
+            }
+            case CANCEL_QUOTE -> ProductManager.getInstance().cancelQuote(event.product(), event.user());
+            case MODIFY -> {
+                TradableDTO order = ordersByReference.get(event.reference());
+                if (order == null) {
+                    throw new DataValidationException("Unknown order reference: " + event.reference());
+                }
+                ordersByReference.put(event.reference(), ProductManager.getInstance().modify(order, event.price(), event.volume()));
+            }
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS / 2);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package replay;
+
+import prices.GlobalConstants;
+import prices.Price;
+
+public record ReplayEvent(
+        int line,
+        long timestampMicros,
+        ReplayEventType type,
+        String reference,
+        String user,
+        String product,
+        GlobalConstants.BookSide side,
+        Price price,
+        int volume,
+        Price sellPrice,
+        int sellVolume,
+        GlobalConstants.TimeInForce timeInForce
+) {
+}
@@ -0,0 +1,5 @@
+package replay;
+
+public enum ReplayEventType {
+    USER, PRODUCT, ORDER, QUOTE, CANCEL, CANCEL_QUOTE, MODIFY
+}
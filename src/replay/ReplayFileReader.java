@@ -0,0 +1,102 @@
+package replay;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidPriceException;
+import prices.GlobalConstants;
+import prices.PriceFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReplayFileReader {
+    static final String MARKET_PRICE = "MKT";
+
+    private ReplayFileReader() {}
+
+    public static List<ReplayEvent> read(Path path) throws IOException, DataValidationException {
+        List<ReplayEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                events.add(parse(lineNumber, line.split(",", -1)));
+            }
+        }
+        return events;
+    }
+
+    private static ReplayEvent parse(int line, String[] fields) throws DataValidationException {
+        if (fields.length < 2) {
+            throw new DataValidationException("Line " + line + ": expected a timestamp and an event type.");
+        }
+        try {
+            long timestamp = Long.parseLong(fields[0].trim());
+            ReplayEventType type = ReplayEventType.valueOf(fields[1].trim());
+            return switch (type) {
+                case USER -> {
+                    expect(line, fields, 3);
+                    yield new ReplayEvent(line, timestamp, type, null, field(fields, 2), null, null, null, 0, null, 0, null);
+                }
+                case PRODUCT -> {
+                    expect(line, fields, 3);
+                    yield new ReplayEvent(line, timestamp, type, null, null, field(fields, 2), null, null, 0, null, 0, null);
+                }
+                case ORDER -> {
+                    expect(line, fields, 8, 9);
+                    String price = field(fields, 6);
+                    yield new ReplayEvent(line, timestamp, type, field(fields, 2), field(fields, 3), field(fields, 4),
+                            GlobalConstants.BookSide.valueOf(field(fields, 5)),
+                            price.equals(MARKET_PRICE) ? null : PriceFactory.makePrice(price),
+                            Integer.parseInt(field(fields, 7)), null, 0,
+                            (fields.length > 8) ? GlobalConstants.TimeInForce.valueOf(field(fields, 8)) : GlobalConstants.TimeInForce.DAY);
+                }
+                case QUOTE -> {
+                    expect(line, fields, 8);
+                    yield new ReplayEvent(line, timestamp, type, null, field(fields, 2), field(fields, 3), null,
+                            PriceFactory.makePrice(field(fields, 4)), Integer.parseInt(field(fields, 5)),
+                            PriceFactory.makePrice(field(fields, 6)), Integer.parseInt(field(fields, 7)), null);
+                }
+                case CANCEL -> {
+                    expect(line, fields, 3);
+                    yield new ReplayEvent(line, timestamp, type, field(fields, 2), null, null, null, null, 0, null, 0, null);
+                }
+                case MODIFY -> {
+                    expect(line, fields, 5);
+                    yield new ReplayEvent(line, timestamp, type, field(fields, 2), null, null, null,
+                            PriceFactory.makePrice(field(fields, 3)), Integer.parseInt(field(fields, 4)), null, 0, null);
+                }
+                case CANCEL_QUOTE -> {
+                    expect(line, fields, 4);
+                    yield new ReplayEvent(line, timestamp, type, null, field(fields, 2), field(fields, 3), null, null, 0, null, 0, null);
+                }
+            };
+        } catch (IllegalArgumentException | InvalidPriceException e) {
+            throw new DataValidationException("Line " + line + ": " + e.getMessage());
+        }
+    }
+
+    private static void expect(int line, String[] fields, int count) throws DataValidationException {
+        expect(line, fields, count, count);
+    }
+
+    private static void expect(int line, String[] fields, int min, int max) throws DataValidationException {
+        if (fields.length < min || fields.length > max) {
+            String expected = (min == max) ? Integer.toString(min) : min + "-" + max;
+            throw new DataValidationException("Line " + line + ": expected " + expected + " fields but found " + fields.length + ".");
+        }
+    }
+
+    private static String field(String[] fields, int index) {
+        return fields[index].trim();
+    }
+}
@@ -0,0 +1,31 @@
+package replay;
+
+import bench.LatencyHistogram;
+
+import java.util.Map;
+
+public record ReplayResult(
+        long events,
+        long rejected,
+        long elapsedNanos,
+        LatencyHistogram overall,
+        Map<ReplayEventType, LatencyHistogram> byType
+) {
+    public double eventsPerSecond() {
+        return (elapsedNanos == 0) ? 0 : events / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Replayed %d events (%d rejected) in %.3f s: %.0f events/s%n",
+                events, rejected, elapsedNanos / 1e9, eventsPerSecond()));
+        sb.append(String.format("%-13s %s%n", "ALL", overall));
+        for (Map.Entry<ReplayEventType, LatencyHistogram> entry : byType.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                sb.append(String.format("%-13s %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package replay;
+
+import events.ConsoleEventSink;
+import events.EventSinkManager;
+import interfaces.MarketEventSink;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class ReplayRunner {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: replay.ReplayRunner <eventFile> <outputFile> [fast|paced] [speed]");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        boolean paced = (args.length > 2) && args[2].equals("paced");
+        double speed = (args.length > 3) ? Double.parseDouble(args[3]) : 1.0;
+
+        List<ReplayEvent> events = ReplayFileReader.read(input);
+        MarketEventSink previous = EventSinkManager.getInstance().getSink();
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16), false)) {
+            EventSinkManager.getInstance().setSink(new ConsoleEventSink(out));
+            ReplayResult result = new ReplayEngine(out).run(events, paced, speed);
+            System.err.print(result);
+        } finally {
+            EventSinkManager.getInstance().setSink(previous);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package risk;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RiskAccount {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long EPOCH_NANOS = System.nanoTime();
+
+    private final String user;
+    private final AtomicLong openVolume = new AtomicLong();
+    private final AtomicLong openNotionalCents = new AtomicLong();
+    private final AtomicLong messageWindow = new AtomicLong();
+    private volatile RiskLimits limits;
+
+    RiskAccount(String user, RiskLimits limits) {
+        this.user = user;
+        this.limits = limits;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public RiskLimits getLimits() {
+        return limits;
+    }
+
+    void setLimits(RiskLimits limits) {
+        this.limits = limits;
+    }
+
+    public long getOpenVolume() {
+        return openVolume.get();
+    }
+
+    public long getOpenNotionalCents() {
+        return openNotionalCents.get();
+    }
+
+    boolean tryAcquireMessage(long nowNanos, int maxPerSecond) {
+        long window = (nowNanos - EPOCH_NANOS) / 1_000_000_000L;
+        long limit = Math.min(maxPerSecond, COUNT_MASK);
+        while (true) {
+            long current = messageWindow.get();
+            boolean sameWindow = (current >>> COUNT_BITS) == window;
+            if (sameWindow && (current & COUNT_MASK) >= limit) {
+                return false;
+            }
+            long next = sameWindow ? current + 1 : (window << COUNT_BITS) | 1;
+            if (messageWindow.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    boolean tryReserveVolume(long volume, long limit) {
+        return tryAdd(openVolume, volume, limit);
+    }
+
+    boolean tryReserveNotional(long notionalCents, long limit) {
+        return tryAdd(openNotionalCents, notionalCents, limit);
+    }
+
+    void release(long volume, long notionalCents) {
+        openVolume.addAndGet(-volume);
+        openNotionalCents.addAndGet(-notionalCents);
+    }
+
+    void adjustNotional(long deltaCents) {
+        openNotionalCents.addAndGet(deltaCents);
+    }
+
+    void reset(long volume, long notionalCents) {
+        openVolume.set(volume);
+        openNotionalCents.set(notionalCents);
+    }
+
+    private static boolean tryAdd(AtomicLong counter, long amount, long limit) {
+        while (true) {
+            long current = counter.get();
+            if (amount > 0 && current > limit - amount) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + amount)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package risk;
+
+public record RiskLimits(
+        int maxOrderVolume,
+        long maxOpenVolume,
+        long maxOpenNotionalCents,
+        int maxMessagesPerSecond
+) {
+    public static final RiskLimits UNLIMITED = new RiskLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+}
@@ -0,0 +1,209 @@
+package risk;
+
+import exceptions.DataValidationException;
+import exceptions.InvalidArgumentException;
+import exceptions.RiskLimitException;
+import interfaces.Tradable;
+import prices.GlobalConstants;
+import prices.Price;
+import quote.Quote;
+import quote.QuoteSide;
+import user.UserManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RiskManager {
+    private static final RiskManager instance = new RiskManager();
+    private final Map<String, RiskAccount> accounts = new ConcurrentHashMap<>();
+    private final Set<String> customLimits = ConcurrentHashMap.newKeySet();
+    private volatile RiskLimits defaultLimits = RiskLimits.UNLIMITED;
+    private volatile boolean enabled;
+
+    private RiskManager() {}
+
+    public static RiskManager getInstance() {
+        return instance;
+    }
+
+    public synchronized void enable() throws DataValidationException {
+        List<Tradable> live = new ArrayList<>();
+        for (String userId : UserManager.getInstance().getUserIds()) {
+            live.clear();
+            UserManager.getInstance().getUser(userId).collectLive(live);
+            long volume = 0;
+            long notional = 0;
+            for (Tradable t : live) {
+                volume += t.getRemainingVolume();
+                notional += notional(t, t.getRemainingVolume());
+            }
+            account(userId).reset(volume, notional);
+        }
+        enabled = true;
+    }
+
+    public synchronized void disable() {
+        enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setDefaultLimits(RiskLimits limits) throws InvalidArgumentException {
+        validate(limits);
+        defaultLimits = limits;
+        for (RiskAccount account : accounts.values()) {
+            if (!customLimits.contains(account.getUser())) {
+                account.setLimits(limits);
+            }
+        }
+    }
+
+    public synchronized void setLimits(String user, RiskLimits limits) throws InvalidArgumentException {
+        if (user == null) {
+            throw new InvalidArgumentException("User cannot be null.");
+        }
+        validate(limits);
+        customLimits.add(user);
+        account(user).setLimits(limits);
+    }
+
+    public RiskAccount getAccount(String user) {
+        return account(user);
+    }
+
+    public long checkOrder(Tradable t, int priceCents) throws RiskLimitException {
+        if (!enabled) {
+            return 0;
+        }
+        RiskAccount account = account(t.getUser());
+        RiskLimits limits = account.getLimits();
+        acquireMessage(account, limits);
+        checkOrderVolume(account, limits, t.getRemainingVolume());
+        long notional = (long) t.getRemainingVolume() * Math.abs(priceCents);
+        reserve(account, limits, t.getRemainingVolume(), notional, 0, 0);
+        return (t.getOrderType() == GlobalConstants.OrderType.MARKET) ? notional : 0;
+    }
+
+    public void checkQuote(Quote quote, Tradable restingBuy, Tradable restingSell) throws RiskLimitException, InvalidArgumentException {
+        if (!enabled) {
+            return;
+        }
+        QuoteSide buy = quote.getQuoteSide(GlobalConstants.BookSide.BUY);
+        QuoteSide sell = quote.getQuoteSide(GlobalConstants.BookSide.SELL);
+        RiskAccount account = account(quote.getUser());
+        RiskLimits limits = account.getLimits();
+        acquireMessage(account, limits);
+        checkOrderVolume(account, limits, Math.max(buy.getRemainingVolume(), sell.getRemainingVolume()));
+        long replacedVolume = 0;
+        long replacedNotional = 0;
+        for (Tradable resting : new Tradable[]{restingBuy, restingSell}) {
+            if (resting != null) {
+                replacedVolume += resting.getRemainingVolume();
+                replacedNotional += notional(resting, resting.getRemainingVolume());
+            }
+        }
+        reserve(account, limits, (long) buy.getRemainingVolume() + sell.getRemainingVolume(),
+                notional(buy, buy.getRemainingVolume()) + notional(sell, sell.getRemainingVolume()), replacedVolume, replacedNotional);
+    }
+
+    public void checkMessage(String user) throws RiskLimitException {
+        if (!enabled) {
+            return;
+        }
+        RiskAccount account = account(user);
+        acquireMessage(account, account.getLimits());
+    }
+
+    public void releaseNotional(String user, long notionalCents) {
+        if (!enabled || notionalCents == 0) {
+            return;
+        }
+        account(user).release(0, notionalCents);
+    }
+
+    public void release(Tradable t, int volume) {
+        if (!enabled || volume <= 0) {
+            return;
+        }
+        account(t.getUser()).release(volume, notional(t, volume));
+    }
+
+    public long reserveReprice(Tradable t, Price newPrice, int newRemainingVolume) throws RiskLimitException {
+        if (!enabled || newRemainingVolume == 0 || newPrice.equals(t.getPrice())) {
+            return 0;
+        }
+        long previousCents = Math.abs(t.getPrice().getCents());
+        long delta = newRemainingVolume * (Math.abs(newPrice.getCents()) - previousCents);
+        if (delta <= 0) {
+            return delta;
+        }
+        RiskAccount account = account(t.getUser());
+        long limit = account.getLimits().maxOpenNotionalCents();
+        long released = (t.getRemainingVolume() - newRemainingVolume) * previousCents;
+        if (!account.tryReserveNotional(delta, saturatedAdd(limit, released))) {
+            throw new RiskLimitException("Open notional limit of " + limit + " cents exceeded for " + account.getUser() + ".");
+        }
+        return delta;
+    }
+
+    public void settleReprice(Tradable t, Price newPrice, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        boolean repriced = newPrice.equals(t.getPrice());
+        if (repriced ? delta < 0 : delta > 0) {
+            account(t.getUser()).adjustNotional(repriced ? delta : -delta);
+        }
+    }
+
+    private RiskAccount account(String user) {
+        RiskAccount account = accounts.get(user);
+        return (account != null) ? account : accounts.computeIfAbsent(user, key -> new RiskAccount(key, defaultLimits));
+    }
+
+    private static void acquireMessage(RiskAccount account, RiskLimits limits) throws RiskLimitException {
+        if (!account.tryAcquireMessage(System.nanoTime(), limits.maxMessagesPerSecond())) {
+            throw new RiskLimitException("Message rate limit of " + limits.maxMessagesPerSecond() + "/s exceeded for " + account.getUser() + ".");
+        }
+    }
+
+    private static void checkOrderVolume(RiskAccount account, RiskLimits limits, int volume) throws RiskLimitException {
+        if (volume > limits.maxOrderVolume()) {
+            throw new RiskLimitException("Order volume " + volume + " exceeds the limit of " + limits.maxOrderVolume() + " for " + account.getUser() + ".");
+        }
+    }
+
+    private static void reserve(RiskAccount account, RiskLimits limits, long volume, long notional,
+            long replacedVolume, long replacedNotional) throws RiskLimitException {
+        if (!account.tryReserveVolume(volume, saturatedAdd(limits.maxOpenVolume(), replacedVolume))) {
+            throw new RiskLimitException("Open volume limit of " + limits.maxOpenVolume() + " exceeded for " + account.getUser() + ".");
+        }
+        if (!account.tryReserveNotional(notional, saturatedAdd(limits.maxOpenNotionalCents(), replacedNotional))) {
+            account.release(volume, 0);
+            throw new RiskLimitException("Open notional limit of " + limits.maxOpenNotionalCents() + " cents exceeded for " + account.getUser() + ".");
+        }
+    }
+
+    private static long saturatedAdd(long limit, long credit) {
+        return (limit > Long.MAX_VALUE - credit) ? Long.MAX_VALUE : limit + credit;
+    }
+
+    private static long notional(Tradable t, int volume) {
+        return (long) volume * Math.abs(t.getPrice().getCents());
+    }
+
+    private static void validate(RiskLimits limits) throws InvalidArgumentException {
+        if (limits == null) {
+            throw new InvalidArgumentException("Risk limits cannot be null.");
+        }
+        if (limits.maxOrderVolume() <= 0 || limits.maxOpenVolume() <= 0 || limits.maxOpenNotionalCents() <= 0
+                || limits.maxMessagesPerSecond() <= 0) {
+            throw new InvalidArgumentException("Risk limits must be positive.");
+        }
+    }
+}
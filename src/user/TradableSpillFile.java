@@ -0,0 +1,151 @@
+package user;
+
+import interfaces.Tradable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class TradableSpillFile implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final long IDLE_POLL_MILLIS = 1;
+    private static final long FLUSH_WAIT_NANOS = 50_000;
+
+    private final BufferedWriter writer;
+    private final ArrayBlockingQueue<Tradable> pending;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Thread writerThread;
+    private volatile long written;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    public TradableSpillFile(Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    public TradableSpillFile(Path path, int capacity) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::drainLoop, "tradable-spill");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void write(Tradable tradable) throws IOException {
+        checkFailure();
+        if (!running) {
+            throw new IOException("Spill file is closed.");
+        }
+        try {
+            pending.put(tradable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while spilling " + tradable.getId());
+        }
+        if (!running && pending.remove(tradable)) {
+            throw new IOException("Spill file is closed.");
+        }
+        enqueued.incrementAndGet();
+    }
+
+    public void flush() throws IOException {
+        long target = enqueued.get();
+        while (written < target && writerThread.isAlive()) {
+            checkFailure();
+            LockSupport.parkNanos(FLUSH_WAIT_NANOS);
+        }
+        synchronized (writer) {
+            writer.flush();
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writer) {
+            writer.close();
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        IOException current = failure;
+        if (current != null) {
+            throw current;
+        }
+    }
+
+    private void drainLoop() {
+        List<Tradable> batch = new ArrayList<>();
+        while (running || !pending.isEmpty()) {
+            Tradable first;
+            try {
+                first = pending.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            pending.drainTo(batch);
+            synchronized (writer) {
+                try {
+                    if (failure == null) {
+                        for (Tradable tradable : batch) {
+                            writeLine(tradable);
+                        }
+                        if (pending.isEmpty()) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            written += batch.size();
+            batch.clear();
+        }
+    }
+
+    private void writeLine(Tradable tradable) throws IOException {
+        writer.write(tradable.getUser());
+        writer.write(',');
+        writer.write(tradable.getProduct());
+        writer.write(',');
+        writer.write(tradable.getSide().name());
+        writer.write(',');
+        writer.write(Integer.toString(tradable.getPrice().getCents()));
+        writer.write(',');
+        writer.write(Integer.toString(tradable.getOriginalVolume()));
+        writer.write(',');
+        writer.write(Integer.toString(tradable.getRemainingVolume()));
+        writer.write(',');
+        writer.write(Integer.toString(tradable.getCancelledVolume()));
+        writer.write(',');
+        writer.write(Integer.toString(tradable.getFilledVolume()));
+        writer.write(',');
+        writer.write(tradable.getId());
+        writer.newLine();
+    }
+}
@@ -2,36 +2,162 @@ package user;
 
 import dto.TradableDTO;
 import interfaces.CurrentMarketObserver;
+import interfaces.Tradable;
 import market.CurrentMarketSide;
+import prices.SymbolValidator;
 import exceptions.DataValidationException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class User implements CurrentMarketObserver {
+    public static final int DEFAULT_HISTORY_CAPACITY = 1024;
+    private static final int INITIAL_LIVE_CAPACITY = 16;
+
     private final String userId;
-    private final Map<String, TradableDTO> tradables;
-    private final HashMap<String, CurrentMarketSide[]> currentMarkets;
+    private final int handle;
+    private Tradable[] live;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotsUsed;
+    private int liveCount;
+    private Tradable[] history;
+    private int historyStart;
+    private int historySize;
+    private final Map<String, CurrentMarketSide[]> currentMarkets;
 
     public User(String userId) throws DataValidationException {
+        this(userId, DEFAULT_HISTORY_CAPACITY);
+    }
+
+    public User(String userId, int historyCapacity) throws DataValidationException {
+        this(userId, historyCapacity, -1);
+    }
+
+    User(String userId, int historyCapacity, int handle) throws DataValidationException {
         validateUserId(userId);
+        if (historyCapacity < 0) {
+            throw new DataValidationException("History capacity cannot be negative.");
+        }
         this.userId = userId;
-        this.tradables = new HashMap<>();
-        this.currentMarkets = new HashMap<>();
+        this.handle = handle;
+        this.live = new Tradable[INITIAL_LIVE_CAPACITY];
+        this.freeSlots = new int[INITIAL_LIVE_CAPACITY];
+        this.history = new Tradable[historyCapacity];
+        this.currentMarkets = new ConcurrentHashMap<>();
     }
 
     private void validateUserId(String userId) throws DataValidationException {
-        if (userId == null || !Pattern.matches("^[A-Z]{3}$", userId)) {
+        if (!SymbolValidator.isUserId(userId)) {
             throw new DataValidationException("Invalid User ID: Must be exactly 3 uppercase letters (A-Z).");
         }
     }
 
-    public void updateTradable(TradableDTO tradable) {
-        if (tradable != null) {
-            tradables.put(tradable.tradableId(), tradable);
+    public synchronized int addLive(Tradable tradable) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotsUsed == live.length) {
+                live = Arrays.copyOf(live, live.length * 2);
+                freeSlots = Arrays.copyOf(freeSlots, live.length);
+            }
+            slot = slotsUsed++;
+        }
+        live[slot] = tradable;
+        liveCount++;
+        return slot;
+    }
+
+    public synchronized Tradable retire(int slot) {
+        Tradable tradable = live[slot];
+        live[slot] = null;
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+        return addToHistory(tradable);
+    }
+
+    public synchronized Tradable addTerminal(Tradable tradable) {
+        return addToHistory(tradable);
+    }
+
+    public synchronized List<Tradable> setHistoryCapacity(int capacity) throws DataValidationException {
+        if (capacity < 0) {
+            throw new DataValidationException("History capacity cannot be negative.");
+        }
+        List<Tradable> evicted = new ArrayList<>();
+        Tradable[] resized = new Tradable[capacity];
+        int keep = Math.min(historySize, capacity);
+        for (int i = 0; i < historySize; i++) {
+            Tradable tradable = history[(historyStart + i) % history.length];
+            if (i < historySize - keep) {
+                evicted.add(tradable);
+            } else {
+                resized[i - (historySize - keep)] = tradable;
+            }
+        }
+        history = resized;
+        historyStart = 0;
+        historySize = keep;
+        return evicted;
+    }
+
+    public synchronized int getLiveCount() {
+        return liveCount;
+    }
+
+    public synchronized int getHistorySize() {
+        return historySize;
+    }
+
+    public synchronized void collectLive(List<Tradable> out) {
+        for (int i = 0; i < slotsUsed; i++) {
+            if (live[i] != null) {
+                out.add(live[i]);
+            }
+        }
+    }
+
+    public synchronized void collectTerminal(String product, List<Tradable> out) {
+        for (int i = 0; i < historySize; i++) {
+            Tradable tradable = history[(historyStart + i) % history.length];
+            if (tradable.getProduct().equals(product)) {
+                out.add(tradable);
+            }
+        }
+    }
+
+    private Tradable addToHistory(Tradable tradable) {
+        if (history.length == 0) {
+            return tradable;
         }
+        if (historySize < history.length) {
+            history[(historyStart + historySize++) % history.length] = tradable;
+            return null;
+        }
+        Tradable evicted = history[historyStart];
+        history[historyStart] = tradable;
+        historyStart = (historyStart + 1) % history.length;
+        return evicted;
+    }
+
+    private synchronized List<TradableDTO> snapshotTradables() {
+        List<TradableDTO> all = new ArrayList<>(liveCount + historySize);
+        for (int i = 0; i < slotsUsed; i++) {
+            if (live[i] != null) {
+                all.add(new TradableDTO(live[i]));
+            }
+        }
+        for (int i = 0; i < historySize; i++) {
+            all.add(new TradableDTO(history[(historyStart + i) % history.length]));
+        }
+        return all;
     }
+
     @Override
     public void updateCurrentMarket(String symbol, CurrentMarketSide buySide, CurrentMarketSide sellSide) {
         currentMarkets.put(symbol, new CurrentMarketSide[]{buySide, sellSide});
@@ -52,7 +178,7 @@ public class User implements CurrentMarketObserver {
         StringBuilder sb = new StringBuilder();
         sb.append("User Id: ").append(userId).append("\n");
 
-        for (TradableDTO tradable : tradables.values()) {
+        for (TradableDTO tradable : snapshotTradables()) {
             sb.append(" Product: ").append(tradable.product())
                     .append(", Price: ").append(tradable.price().toString())
                     .append(", OriginalVolume: ").append(tradable.originalVolume())
@@ -72,9 +198,17 @@ public class User implements CurrentMarketObserver {
         return userId;
     }
 
+    public int getHandle() {
+        return handle;
+    }
+
 
     public Map<String, TradableDTO> getTradables() {
-        return new HashMap<>(tradables);
+        Map<String, TradableDTO> copy = new HashMap<>();
+        for (TradableDTO tradable : snapshotTradables()) {
+            copy.put(tradable.tradableId(), tradable);
+        }
+        return copy;
     }
 }
 
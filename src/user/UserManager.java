@@ -1,18 +1,30 @@
 package user;
 
-import dto.TradableDTO;
 import exceptions.DataValidationException;
+import interfaces.Tradable;
+import journal.JournalManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UserManager {
     private static UserManager instance;
     private final Map<String, User> users;
+    private volatile User[] usersByHandle;
+    private int userCount;
+    private volatile int historyCapacity = User.DEFAULT_HISTORY_CAPACITY;
+    private volatile TradableSpillFile spillFile;
 
 
     private UserManager() {
-        users = new TreeMap<>();
+        users = new ConcurrentHashMap<>();
+        usersByHandle = new User[16];
     }
 
     public static synchronized UserManager getInstance() {
@@ -23,13 +35,14 @@ public class UserManager {
     }
 
 
-    public void init(String[] usersIn) throws DataValidationException {
+    public synchronized void init(String[] usersIn) throws DataValidationException {
         if (usersIn == null) {
             throw new DataValidationException("User list cannot be null.");
         }
         for (String userId : usersIn) {
             try {
-                users.put(userId, new User(userId));
+                register(userId);
+                JournalManager.getInstance().recordUser(userId);
             } catch (DataValidationException e) {
                 System.out.println("Skipping invalid user ID: " + userId);
             }
@@ -37,18 +50,99 @@ public class UserManager {
     }
 
 
-    public void updateTradable(String userId, TradableDTO tradable) throws DataValidationException {
-        if (userId == null) {
-            throw new DataValidationException("User ID cannot be null.");
+    private void register(String userId) throws DataValidationException {
+        User existing = users.get(userId);
+        int handle = (existing != null) ? existing.getHandle() : userCount;
+        User user = new User(userId, historyCapacity, handle);
+        User[] table = usersByHandle;
+        if (handle == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
         }
-        if (tradable == null) {
-            throw new DataValidationException("TradableDTO cannot be null.");
+        table[handle] = user;
+        usersByHandle = table;
+        users.put(userId, user);
+        if (existing == null) {
+            userCount++;
         }
-        User user = users.get(userId);
-        if (user == null) {
-            throw new DataValidationException("User does not exist: " + userId);
+    }
+
+    public void retireTradable(User user, int slot) throws DataValidationException {
+        Tradable evicted = user.retire(slot);
+        if (evicted != null) {
+            spill(evicted);
+        }
+    }
+
+    public void addTerminal(Tradable tradable) throws DataValidationException {
+        Tradable evicted = resolve(tradable).addTerminal(tradable);
+        if (evicted != null) {
+            spill(evicted);
+        }
+    }
+
+    public synchronized void configureHistory(int capacity, Path spillPath) throws DataValidationException {
+        if (capacity < 0) {
+            throw new DataValidationException("History capacity cannot be negative.");
+        }
+        TradableSpillFile previous = spillFile;
+        try {
+            spillFile = (spillPath == null) ? null : new TradableSpillFile(spillPath);
+        } catch (IOException e) {
+            throw new DataValidationException("Cannot open spill file: " + e.getMessage());
+        }
+        historyCapacity = capacity;
+        for (User user : users.values()) {
+            for (Tradable evicted : user.setHistoryCapacity(capacity)) {
+                spill(evicted);
+            }
+        }
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                throw new DataValidationException("Cannot close spill file: " + e.getMessage());
+            }
+        }
+    }
+
+    public void flushSpill() throws DataValidationException {
+        TradableSpillFile current = spillFile;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.flush();
+        } catch (IOException e) {
+            throw new DataValidationException("Cannot flush spill file: " + e.getMessage());
         }
-        user.updateTradable(tradable);
+    }
+
+    private void spill(Tradable evicted) throws DataValidationException {
+        TradableSpillFile current = spillFile;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.write(evicted);
+        } catch (IOException e) {
+            throw new DataValidationException("Cannot spill tradable " + evicted.getId() + ": " + e.getMessage());
+        }
+    }
+
+    public boolean hasUser(String userId) {
+        return userId != null && users.containsKey(userId);
+    }
+
+    public List<String> getUserIds() {
+        return new ArrayList<>(new TreeMap<>(users).keySet());
+    }
+
+    public List<Tradable> getTerminalTradables(String product) {
+        List<Tradable> tradables = new ArrayList<>();
+        for (User user : users.values()) {
+            user.collectTerminal(product, tradables);
+        }
+        return tradables;
     }
 
     public User getUser(String userId) throws DataValidationException {
@@ -59,10 +153,28 @@ public class UserManager {
         return user;
     }
 
+    public User getUser(int handle) throws DataValidationException {
+        User[] table = usersByHandle;
+        User user = (handle >= 0 && handle < table.length) ? table[handle] : null;
+        if (user == null) {
+            throw new DataValidationException("User handle does not exist: " + handle);
+        }
+        return user;
+    }
+
+    public User resolve(Tradable tradable) throws DataValidationException {
+        int handle = tradable.getUserHandle();
+        if (handle < 0) {
+            handle = getUser(tradable.getUser()).getHandle();
+            tradable.setUserHandle(handle);
+        }
+        return getUser(handle);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (User user : users.values()) {
+        for (User user : new TreeMap<>(users).values()) {
             sb.append(user.toString()).append("\n");
         }
         return sb.toString();